@@ -239,15 +239,123 @@ async function fetchFacilities() {
   return await res.json();
 }
 
-async function fetchBookings() {
-  for (const url of [`${API}/bookings`, `${API}/booking`]) {
-    try {
-      const res = await fetch(url);
-      if (!res.ok) throw new Error(await res.text());
-      return await res.json();
-    } catch (e) { /* try next */ }
+// Bookings are loaded in bounded windows, never the whole table: one page of
+// the current user's bookings at a time ("Load more" fetches the next), plus
+// every booking on the days the facility and availability views show.
+const MY_BOOKINGS_PAGE = 100;
+const DAY_PAGE = 500;
+const DAY_MAX_PAGES = 4;
+let myBookingsCursor = null;
+const loadedDays = new Set();
+
+async function fetchBookingPage(filters, limit, cursor) {
+  const params = new URLSearchParams({ ...filters, limit: String(limit) });
+  if (cursor) params.set('cursor', cursor);
+  const res = await fetch(`${API}/bookings?${params}`);
+  if (!res.ok) throw new Error(await res.text());
+  return await res.json();
+}
+
+function mergeBookings(items) {
+  items.forEach(b => upsertBooking(b));
+}
+
+async function fetchMyBookings(cursor) {
+  const page = await fetchBookingPage({ userId: String(CURRENT_USER_ID) }, MY_BOOKINGS_PAGE, cursor);
+  mergeBookings(page.items);
+  myBookingsCursor = page.nextCursor;
+  const more = el('btnLoadMoreBookings');
+  if (more) more.style.display = myBookingsCursor ? '' : 'none';
+}
+
+// One day is bounded by facilities x slots; the page cap guards the rest
+async function fetchDayBookings(date) {
+  if (!date || loadedDays.has(date)) return;
+  let cursor = null;
+  let pages = 0;
+  do {
+    const page = await fetchBookingPage({ from: date, to: date }, DAY_PAGE, cursor);
+    mergeBookings(page.items);
+    cursor = page.nextCursor;
+  } while (cursor && ++pages < DAY_MAX_PAGES);
+  loadedDays.add(date);
+}
+
+async function loadMoreBookings() {
+  if (!myBookingsCursor) return;
+  try {
+    await fetchMyBookings(myBookingsCursor);
+    renderBookings();
+  } catch (e) {
+    showAlert('Bookings', 'Could not load more bookings. Please try again.');
+  }
+}
+
+// =========================================================
+// LIVE UPDATES — server-sent booking changes applied as deltas
+// =========================================================
+let bookingEvents = null;
+let liveRenderTimer = null;
+
+function liveUpdatesActive() {
+  return bookingEvents !== null && bookingEvents.readyState === EventSource.OPEN;
+}
+
+// Insert, replace or drop one booking in the local cache
+function upsertBooking(booking) {
+  const idx = bookingsCache.findIndex(b => b.id === booking.id);
+  if (idx >= 0) bookingsCache[idx] = booking;
+  else bookingsCache.push(booking);
+}
+
+function applyBookingChange(change) {
+  if (change.type === 'DELETED') {
+    bookingsCache = bookingsCache.filter(b => b.id !== change.bookingId);
+  } else {
+    upsertBooking(normalizeBooking({ ...change, id: change.bookingId }));
   }
-  throw new Error('Could not fetch bookings');
+  // Coalesce bursts of events into one re-render
+  clearTimeout(liveRenderTimer);
+  liveRenderTimer = setTimeout(() => {
+    renderBookings();
+    renderFacilitiesList();
+    loadAvailability();
+  }, 150);
+}
+
+// Pull-based fallback: while the live feed is down, poll for deltas since
+// the token taken just before the last full load
+let changesToken = null;
+const CHANGES_POLL_MS = 15000;
+
+async function fetchChangesToken() {
+  const res = await fetch(`${API}/bookings/changes`);
+  if (!res.ok) throw new Error(await res.text());
+  return (await res.json()).nextToken;
+}
+
+async function pollBookingChanges() {
+  if (!changesToken || liveUpdatesActive()) return;
+  try {
+    let page;
+    do {
+      const res = await fetch(`${API}/bookings/changes?since=${encodeURIComponent(changesToken)}`);
+      if (!res.ok) return;
+      page = await res.json();
+      if (page.reset) { await loadBookings(); return; }
+      page.changed.forEach(b => applyBookingChange({ ...b, type: 'UPDATED', bookingId: b.id }));
+      page.deleted.forEach(id => applyBookingChange({ type: 'DELETED', bookingId: id }));
+      changesToken = page.nextToken;
+    } while (page.hasMore);
+  } catch (_) { /* try again on the next tick */ }
+}
+
+function connectBookingEvents() {
+  if (!window.EventSource || bookingEvents) return;
+  bookingEvents = new EventSource(`${API}/bookings/events`);
+  bookingEvents.addEventListener('booking', e => applyBookingChange(JSON.parse(e.data)));
+  // Sent when the server cannot replay what we missed (restart or long gap)
+  bookingEvents.addEventListener('reset', () => loadBookings());
 }
 
 async function postBooking(payload) {
@@ -607,7 +715,13 @@ async function loadFacilities() {
 
 async function loadBookings() {
   try {
-    bookingsCache = await fetchBookings();
+    // Token first, so nothing committed during the full load is missed
+    changesToken = await fetchChangesToken().catch(() => null);
+    bookingsCache = [];
+    loadedDays.clear();
+    await fetchMyBookings(null);
+    await fetchDayBookings(el('facilityDate')?.value);
+    await fetchDayBookings(el('availDate')?.value);
     renderBookings();
     renderFacilitiesList(); // refresh occupancy after bookings load
   } catch (e) {
@@ -625,6 +739,13 @@ async function loadAvailability() {
     return;
   }
 
+  try {
+    await fetchDayBookings(date);
+  } catch (e) {
+    if (el('slots')) el('slots').innerHTML = `<div class="empty-state" style="padding:24px;"><div class="empty-icon">&#x26A0;</div><p>Could not load bookings for this day.</p></div>`;
+    return;
+  }
+
   const active = bookingsCache.map(normalizeBooking).filter(b => {
     const bookingDate = String(b.date).split('T')[0];
     return b.facilityId === facilityId &&
@@ -678,9 +799,11 @@ async function createBooking() {
   try {
     el('btnCreateBooking').disabled = true;
     el('btnCreateBooking').textContent = 'Booking…';
-    await postBooking(payload);
+    const created = await postBooking(payload);
     resetForm();
-    await loadBookings();
+    if (liveUpdatesActive() && created && created.id) upsertBooking(normalizeBooking(created));
+    else await loadBookings();
+    renderBookings();
     await loadAvailability();
     if (window.showSuccessOverlay)
       showSuccessOverlay(`${facilityName} reserved on ${payload.date} from ${payload.startTime} to ${payload.endTime}.`);
@@ -708,7 +831,10 @@ window.cancelBooking = async function (bookingId) {
       throw Object.assign(new Error(msg), { _friendly: true });
     }
     toast('Booking cancelled successfully.', 'success');
-    await loadBookings();
+    const cancelled = bookingsCache.find(b => b.id === bookingId);
+    if (liveUpdatesActive() && cancelled) cancelled.status = 'CANCELLED';
+    else await loadBookings();
+    renderBookings();
     await loadAvailability();
   } catch (e) {
     const msg = e._friendly ? e.message : await friendlyError(e, 'cancel');
@@ -792,7 +918,10 @@ window.updateBooking = async () => {
     toast('Booking updated successfully.', 'success');
     if (updateModal) updateModal.hide();
     editingBookingId = null;
-    await loadBookings();
+    const updated = await res.json().catch(() => null);
+    if (liveUpdatesActive() && updated && updated.id) upsertBooking(normalizeBooking(updated));
+    else await loadBookings();
+    renderBookings();
     await loadAvailability();
   } catch (e) {
     const msg = e._friendly ? e.message : await friendlyError(e, 'update');
@@ -840,13 +969,17 @@ function autoFillBookingFromSlot() {
 // FACILITY FILTER
 // =========================================================
 window.onFacilitySelectChange = () => renderFacilitiesList();
-window.onFacilityDateChange = () => renderFacilitiesList();
+window.onFacilityDateChange = async () => {
+  await fetchDayBookings(el('facilityDate')?.value).catch(() => null);
+  renderFacilitiesList();
+};
 
 // =========================================================
 // WIRE BUTTONS
 // =========================================================
 el('btnRefreshFacilities')?.addEventListener('click', loadFacilities);
 el('btnRefreshBookings')?.addEventListener('click', loadBookings);
+el('btnLoadMoreBookings')?.addEventListener('click', loadMoreBookings);
 el('btnCheckAvailability')?.addEventListener('click', loadAvailability);
 el('btnCreateBooking')?.addEventListener('click', createBooking);
 el('btnResetForm')?.addEventListener('click', resetForm);
@@ -869,5 +1002,7 @@ el('availDate')?.addEventListener('change', loadAvailability);
   await loadFacilities();
   await loadBookings();
   await loadAvailability();
+  connectBookingEvents();
+  setInterval(pollBookingChanges, CHANGES_POLL_MS);
   try { showTab('facilities'); } catch (_) { }
 })();
\ No newline at end of file
@@ -1,5 +1,11 @@
 -- Drop tables in correct order
+DROP TABLE IF EXISTS idempotency_keys CASCADE;
+DROP TABLE IF EXISTS facility_booking_versions CASCADE;
+DROP TABLE IF EXISTS booking_dates CASCADE;
+DROP TABLE IF EXISTS booking_tombstones CASCADE;
+DROP TABLE IF EXISTS bookings_archive CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS booking_series CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS facilities CASCADE;
 
@@ -33,11 +39,31 @@ CREATE TABLE users (
   -- NO updated_at in entity, so we omit it
 );
 
+-- =========================================================
+-- BOOKING SERIES TABLE (matches BookingSeries.java exactly)
+-- Recurring bookings; occurrences are rows in bookings
+-- =========================================================
+CREATE TABLE booking_series (
+  id               BIGSERIAL PRIMARY KEY,
+  facility_id      BIGINT NOT NULL REFERENCES facilities(id) ON DELETE CASCADE,
+  user_id          BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  frequency        VARCHAR(30) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY')),
+  start_date       DATE NOT NULL,
+  end_date         DATE,
+  occurrences      INTEGER,
+  start_time       TIME NOT NULL,
+  end_time         TIME NOT NULL,
+  purpose          VARCHAR(500),
+  created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- =========================================================
 -- BOOKINGS TABLE (matches Booking.java exactly)
+-- Range-partitioned by month on date; the primary key must
+-- include the partition key. See PARTITIONS below.
 -- =========================================================
 CREATE TABLE bookings (
-  id          BIGSERIAL PRIMARY KEY,
+  id          BIGSERIAL,
   facility_id BIGINT NOT NULL REFERENCES facilities(id) ON DELETE CASCADE,
   user_id     BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
   date        DATE NOT NULL,
@@ -45,24 +71,117 @@ CREATE TABLE bookings (
   end_time    TIME NOT NULL,
   status      VARCHAR(30) NOT NULL CHECK (status IN ('CONFIRMED', 'CANCELLED', 'COMPLETED', 'PENDING')),
   purpose     VARCHAR(500),
+  series_id   BIGINT REFERENCES booking_series(id) ON DELETE SET NULL,
   created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  change_version BIGINT NOT NULL DEFAULT 0,  -- writing transaction id, set by trigger
+  PRIMARY KEY (id, date),
   CHECK (start_time < end_time)
   -- NO updated_at, NO slot in entity
-);
+) PARTITION BY RANGE (date);
 
 -- =========================================================
 -- ADDITIONAL CONSTRAINTS
 -- =========================================================
+-- Booking.java allocates ids in blocks of 50 for insert batching
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+
 ALTER TABLE bookings 
 ADD CONSTRAINT valid_time_range CHECK (end_time > start_time);
 
-ALTER TABLE bookings
-ADD CONSTRAINT no_overlapping_bookings
-EXCLUDE USING gist (
-  facility_id WITH =,
-  tsrange(date + start_time, date + end_time, '[)') WITH &&
-)
-WHERE (status != 'CANCELLED');
+-- =========================================================
+-- PARTITIONS (same functions as src/main/resources/db/schema.sql)
+-- Monthly partitions bookings_YYYY_MM plus a DEFAULT partition.
+-- Each partition carries its own no-overlap exclusion constraint;
+-- overlapping bookings share a date and so a partition.
+-- =========================================================
+CREATE OR REPLACE FUNCTION bookings_add_overlap_constraint(part text) RETURNS void AS $$
+BEGIN
+  EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+      || 'facility_id WITH =, tsrange(date + start_time, date + end_time, ''[)'') WITH &&) '
+      || 'WHERE (status IN (''CONFIRMED'', ''PENDING''))', part, part || '_no_overlap');
+EXCEPTION
+  WHEN exclusion_violation THEN
+    RAISE WARNING '% not protected against overlaps: existing bookings overlap', part;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bookings_create_month_partition(m date) RETURNS boolean AS $$
+DECLARE
+  lo   date := date_trunc('month', m)::date;
+  hi   date := (date_trunc('month', m) + interval '1 month')::date;
+  part text := 'bookings_' || to_char(m, 'YYYY_MM');
+BEGIN
+  IF to_regclass(part) IS NOT NULL THEN
+    RETURN false;
+  END IF;
+  EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+  PERFORM set_config('booking.skip_tombstones', 'on', true);
+  EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE date >= %L AND date < %L RETURNING *) '
+      || 'INSERT INTO %I SELECT * FROM moved', lo, hi, part);
+  PERFORM set_config('booking.skip_tombstones', 'off', true);
+  PERFORM bookings_add_overlap_constraint(part);
+  EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', part, lo, hi);
+  RETURN true;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bookings_ensure_partitions(months_ahead integer) RETURNS integer AS $$
+DECLARE
+  m       date;
+  created integer := 0;
+BEGIN
+  FOR m IN
+    SELECT DISTINCT date_trunc('month', date)::date FROM bookings_default
+    UNION
+    SELECT (date_trunc('month', current_date) + make_interval(months => n))::date
+    FROM generate_series(0, months_ahead) AS n
+    ORDER BY 1
+  LOOP
+    IF bookings_create_month_partition(m) THEN
+      created := created + 1;
+    END IF;
+  END LOOP;
+  RETURN created;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bookings_archive_partitions(cutoff date) RETURNS integer AS $$
+DECLARE
+  part     text;
+  lo       date;
+  archived integer := 0;
+BEGIN
+  PERFORM set_config('lock_timeout', '5s', true);
+  FOR part IN
+    SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+    WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$'
+    ORDER BY c.relname
+  LOOP
+    lo := to_date(substr(part, 10), 'YYYY_MM');
+    CONTINUE WHEN (lo + interval '1 month')::date > cutoff;
+    BEGIN
+      EXECUTE format('INSERT INTO booking_tombstones (booking_id, facility_id, date, deleted_version) '
+          || 'SELECT id, facility_id, date, pg_current_xact_id()::text::bigint FROM %I', part);
+      EXECUTE format('DELETE FROM booking_dates d USING %I p WHERE d.booking_id = p.id', part);
+      EXECUTE format('SELECT facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM %I', part);
+      EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', part);
+      EXECUTE format('ALTER TABLE bookings_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+          part, lo, (lo + interval '1 month')::date);
+      archived := archived + 1;
+    EXCEPTION
+      WHEN OTHERS THEN
+        RAISE WARNING 'could not archive %: %', part, SQLERRM;
+    END;
+  END LOOP;
+  RETURN archived;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+SELECT bookings_add_overlap_constraint('bookings_default');
+
+-- Partitions past booking.partitions.archive-after-months end up here
+CREATE TABLE bookings_archive (LIKE bookings) PARTITION BY RANGE (date);
 
 -- =========================================================
 -- INDEXES
@@ -71,6 +190,146 @@ CREATE INDEX idx_bookings_facility_id ON bookings(facility_id);
 CREATE INDEX idx_bookings_user_id ON bookings(user_id);
 CREATE INDEX idx_bookings_date ON bookings(date);
 CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_facilities_available_capacity ON facilities(capacity, id) WHERE is_available;
+
+-- Keyset pagination on (date, start_time, id), optionally filtered
+CREATE INDEX idx_bookings_date_start_id ON bookings(date, start_time, id);
+CREATE INDEX idx_bookings_facility_date_start_id ON bookings(facility_id, date, start_time, id);
+CREATE INDEX idx_bookings_user_date_start_id ON bookings(user_id, date, start_time, id);
+CREATE INDEX idx_bookings_status_date_start_id ON bookings(status, date, start_time, id);
+
+-- Bookings that can still clash (ended ones become COMPLETED)
+CREATE INDEX idx_bookings_active_facility_date ON bookings(facility_id, date, start_time, end_time)
+  WHERE status IN ('CONFIRMED', 'PENDING');
+
+-- Occurrences of one series (series-wide cancel and update)
+CREATE INDEX idx_bookings_series ON bookings(series_id, date) WHERE series_id IS NOT NULL;
+
+-- =========================================================
+-- CHANGE TRACKING (GET /api/bookings/changes)
+-- =========================================================
+CREATE TABLE booking_tombstones (
+  booking_id      BIGINT NOT NULL,
+  facility_id     BIGINT NOT NULL,
+  date            DATE NOT NULL,
+  deleted_version BIGINT NOT NULL,
+  deleted_at      TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE OR REPLACE FUNCTION bookings_stamp_change() RETURNS trigger AS $$
+BEGIN
+  NEW.change_version := pg_current_xact_id()::text::bigint;
+  RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bookings_record_tombstone() RETURNS trigger AS $$
+BEGIN
+  -- Partition maintenance moves rows; it does not delete bookings
+  IF current_setting('booking.skip_tombstones', true) = 'on' THEN
+    RETURN OLD;
+  END IF;
+  -- An UPDATE that changes the month moves the row to another partition
+  IF EXISTS (SELECT 1 FROM bookings WHERE id = OLD.id) THEN
+    RETURN OLD;
+  END IF;
+  INSERT INTO booking_tombstones (booking_id, facility_id, date, deleted_version)
+  VALUES (OLD.id, OLD.facility_id, OLD.date, pg_current_xact_id()::text::bigint);
+  RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bookings_stamp_change BEFORE INSERT OR UPDATE ON bookings
+  FOR EACH ROW EXECUTE FUNCTION bookings_stamp_change();
+CREATE TRIGGER bookings_record_tombstone AFTER DELETE ON bookings
+  FOR EACH ROW EXECUTE FUNCTION bookings_record_tombstone();
+
+-- id -> date, so lookups by id alone touch one partition
+CREATE TABLE booking_dates (
+  booking_id BIGINT PRIMARY KEY,
+  date       DATE NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION bookings_track_date() RETURNS trigger AS $$
+BEGIN
+  IF current_setting('booking.skip_tombstones', true) = 'on' THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM booking_dates WHERE booking_id = OLD.id AND date = OLD.date;
+  ELSE
+    INSERT INTO booking_dates (booking_id, date) VALUES (NEW.id, NEW.date)
+    ON CONFLICT (booking_id) DO UPDATE SET date = EXCLUDED.date;
+  END IF;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bookings_track_date AFTER INSERT OR UPDATE OF date OR DELETE ON bookings
+  FOR EACH ROW EXECUTE FUNCTION bookings_track_date();
+
+-- Per-facility booking list versions behind the ETags (CollectionVersions);
+-- bumped once per statement, and when the facility row changes
+CREATE TABLE facility_booking_versions (
+  facility_id BIGINT PRIMARY KEY,
+  version     BIGINT NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION facility_bookings_changed(facility_ids bigint[]) RETURNS void AS $$
+  INSERT INTO facility_booking_versions (facility_id, version)
+  SELECT id, 1 FROM unnest(facility_ids) AS id WHERE id IS NOT NULL ORDER BY id
+  ON CONFLICT (facility_id) DO UPDATE SET version = facility_booking_versions.version + 1
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION bookings_bump_facility_versions() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM new_rows;
+  ELSIF TG_OP = 'UPDATE' THEN
+    PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id))
+    FROM (SELECT facility_id FROM new_rows UNION SELECT facility_id FROM old_rows) changed;
+  ELSE
+    PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM old_rows;
+  END IF;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION facilities_bump_booking_version() RETURNS trigger AS $$
+BEGIN
+  PERFORM facility_bookings_changed(ARRAY[NEW.id]);
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bookings_version_insert AFTER INSERT ON bookings
+  REFERENCING NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+CREATE TRIGGER bookings_version_update AFTER UPDATE ON bookings
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+CREATE TRIGGER bookings_version_delete AFTER DELETE ON bookings
+  REFERENCING OLD TABLE AS old_rows
+  FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+CREATE TRIGGER facilities_bump_booking_version AFTER UPDATE ON facilities
+  FOR EACH ROW EXECUTE FUNCTION facilities_bump_booking_version();
+
+CREATE INDEX idx_bookings_change_version ON bookings(change_version, id);
+CREATE INDEX idx_booking_tombstones_version ON booking_tombstones(deleted_version, booking_id);
+
+-- =========================================================
+-- IDEMPOTENCY KEYS (booking.idempotency.store=database)
+-- =========================================================
+CREATE TABLE idempotency_keys (
+  key          VARCHAR(300) PRIMARY KEY,
+  fingerprint  VARCHAR(64) NOT NULL,
+  status       INTEGER,
+  content_type VARCHAR(100),
+  body         BYTEA,
+  created_at   TIMESTAMP NOT NULL DEFAULT now(),
+  expires_at   TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
 
 -- =========================================================
 -- SAMPLE DATA (with passwords)
@@ -88,4 +347,8 @@ VALUES
 INSERT INTO bookings (facility_id, user_id, date, start_time, end_time, status, purpose)
 VALUES 
   (1, 1, '2026-02-17', '09:00', '10:00', 'CONFIRMED', 'Lab session'),
-  (2, 2, '2026-02-18', '14:00', '16:00', 'CONFIRMED', 'Study group meeting');
\ No newline at end of file
+  (2, 2, '2026-02-18', '14:00', '16:00', 'CONFIRMED', 'Study group meeting');
+
+-- Create monthly partitions for the next year and move the sample rows
+-- out of the default partition
+SELECT bookings_ensure_partitions(12);
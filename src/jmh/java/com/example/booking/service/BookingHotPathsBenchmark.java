@@ -0,0 +1,163 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingRequest;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.model.Booking;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.model.Facility;
+import com.example.booking.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks for the CPU-bound parts of a booking request.
+ *
+ * Run with {@code mvn -P benchmark clean verify}; results land in
+ * target/jmh-result.json.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingHotPathsBenchmark {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private List<Booking> dayBookings;
+    private AvailabilityIndex.DaySlots daySlots;
+    private List<Booking> bookings;
+    private List<BookingResponse> responses;
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private BookingRequest validRequest;
+    private BookingRequest invalidRequest;
+
+    private LocalTime probeStart;
+    private LocalTime probeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = new User("bench@university.edu", "Bench User", "secret", null);
+        Facility facility = new Facility("Engineering Lab", "Block A", 40);
+        facility.setId(1L);
+
+        // Conflict detection: one facility-day holding `size` short bookings
+        // (capped by what fits between opening and closing)
+        dayBookings = new ArrayList<>();
+        daySlots = new AvailabilityIndex.DaySlots();
+        int perDay = Math.min(size, 720);
+        int length = 720 / perDay;
+        for (int i = 0; i < perDay; i++) {
+            LocalTime start = BookingRequest.OPENING_TIME.plusMinutes((long) i * length);
+            LocalTime end = start.plusMinutes(Math.max(length - 1, 1));
+            Booking booking = booking(i, user, facility, start, end);
+            dayBookings.add(booking);
+            int from = start.getHour() * 60 + start.getMinute();
+            daySlots.add(booking.getId(), from, end.getHour() * 60 + end.getMinute());
+        }
+        // Probe the last slot so the list scan has to walk everything
+        probeStart = BookingRequest.CLOSING_TIME.minusMinutes(1);
+        probeEnd = BookingRequest.CLOSING_TIME;
+
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalTime start = LocalTime.of(8 + i % 12, 0);
+            bookings.add(booking(i, user, facility, start, start.plusMinutes(45)));
+        }
+        responses = bookings.stream().map(BookingService::convertToResponse).toList();
+
+        // Same configuration Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = new BookingRequest(1L, 1L, DATE, LocalTime.of(9, 0), LocalTime.of(10, 0), "Lab session");
+        invalidRequest = new BookingRequest(null, 1L, DATE, LocalTime.of(7, 0), LocalTime.of(6, 0), "x".repeat(600));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    private static Booking booking(long id, User user, Facility facility, LocalTime start, LocalTime end) {
+        Booking booking = new Booking(user, facility, DATE, start, end, "Benchmark booking " + id);
+        booking.setId(id + 1);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+
+    /** List filtering as updateBooking did before the availability index. */
+    @Benchmark
+    public boolean conflictListScan() {
+        Long excludeId = 1L;
+        return dayBookings.stream()
+                .filter(b -> !b.getId().equals(excludeId))
+                .anyMatch(b -> BookingService.timeOverlap(b.getStartTime(), b.getEndTime(), probeStart, probeEnd));
+    }
+
+    /** The same check answered by the per-day bitmap. */
+    @Benchmark
+    public boolean conflictBitmap() {
+        return daySlots.overlaps(19 * 60 + 59, 20 * 60, 1L);
+    }
+
+    @Benchmark
+    public List<BookingResponse> convertToResponse() {
+        List<BookingResponse> out = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            out.add(BookingService.convertToResponse(booking));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(convertToResponse());
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.booking.loadtest;
+
+import com.example.booking.BookingApplication;
+import com.example.booking.loadtest.LoadScenario.LoadRequest;
+import com.example.booking.model.Facility;
+import com.example.booking.model.Role;
+import com.example.booking.model.User;
+import com.example.booking.repository.FacilityRepository;
+import com.example.booking.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the whole application and drives BookingController over HTTP with
+ * many concurrent clients, then reports throughput, latency percentiles,
+ * conflict rate and any double bookings left in the database.
+ *
+ * Configured with system properties:
+ * <ul>
+ *   <li>loadtest.scenario: hot-slot (default), uniform or read-heavy</li>
+ *   <li>loadtest.clients: concurrent clients (default 200)</li>
+ *   <li>loadtest.requests: total requests (default 5000)</li>
+ *   <li>loadtest.facilities / loadtest.users: rows to seed (default 20 / 500)</li>
+ *   <li>loadtest.threads: platform (default), virtual or both. Virtual runs
+ *       the server with spring.threads.virtual.enabled and needs Java 21+;
+ *       both runs the same scenario once per mode for comparison.</li>
+ *   <li>loadtest.tomcat-threads: override Tomcat's platform thread cap</li>
+ *   <li>loadtest.jdbc-url, loadtest.db-username, loadtest.db-password: use an
+ *       existing PostgreSQL instead of the embedded one. Its bookings, users
+ *       and facilities tables are truncated.</li>
+ * </ul>
+ */
+public class BookingLoadTest {
+
+    private static final String DOUBLE_BOOKINGS_SQL =
+            "SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+            "ON a.facility_id = b.facility_id AND a.date = b.date AND a.id < b.id " +
+            "AND a.status IN ('CONFIRMED', 'PENDING') AND b.status IN ('CONFIRMED', 'PENDING') " +
+            "AND a.start_time < b.end_time AND b.start_time < a.end_time";
+
+    public static void main(String[] args) throws Exception {
+        LoadScenario scenario = LoadScenario.parse(System.getProperty("loadtest.scenario", "hot-slot"));
+        int clients = Integer.getInteger("loadtest.clients", 200);
+        int requests = Integer.getInteger("loadtest.requests", 5000);
+        int facilityCount = Integer.getInteger("loadtest.facilities", 20);
+        int userCount = Integer.getInteger("loadtest.users", 500);
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        List<ThreadMode> modes = ThreadMode.parse(System.getProperty("loadtest.threads", "platform"));
+
+        EmbeddedPostgres embedded = null;
+        String username = System.getProperty("loadtest.db-username", "postgres");
+        String password = System.getProperty("loadtest.db-password", "postgres");
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+        }
+
+        try {
+            for (ThreadMode mode : modes) {
+                ConfigurableApplicationContext context = startApplication(jdbcUrl, username, password, mode);
+                try {
+                    JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                    jdbc.execute("TRUNCATE bookings, users, facilities RESTART IDENTITY CASCADE");
+                    List<Long> facilityIds = seedFacilities(context.getBean(FacilityRepository.class), facilityCount);
+                    List<Long> userIds = seedUsers(context.getBean(UserRepository.class), userCount);
+
+                    int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                    Result result = run(scenario, "http://localhost:" + port + "/api/bookings",
+                            clients, requests, facilityIds, userIds);
+                    long doubleBookings = jdbc.queryForObject(DOUBLE_BOOKINGS_SQL, Long.class);
+
+                    report(scenario, mode, clients, result, doubleBookings);
+                    if (doubleBookings > 0) {
+                        throw new IllegalStateException(doubleBookings + " double bookings detected");
+                    }
+                } finally {
+                    context.close();
+                }
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String jdbcUrl, String username,
+            String password, ThreadMode mode) {
+        SpringApplication app = new SpringApplication(BookingApplication.class);
+        Map<String, Object> props = new LinkedHashMap<>();
+        props.put("server.port", 0);
+        props.put("spring.threads.virtual.enabled", mode == ThreadMode.VIRTUAL);
+        String tomcatThreads = System.getProperty("loadtest.tomcat-threads");
+        if (tomcatThreads != null) {
+            props.put("server.tomcat.threads.max", tomcatThreads);
+        }
+        props.put("spring.datasource.url", jdbcUrl);
+        props.put("spring.datasource.username", username);
+        props.put("spring.datasource.password", password);
+        props.put("spring.jpa.show-sql", false);
+        props.put("logging.level.root", "WARN");
+        // The harness is one client address; throttling it would measure the limiter, not contention
+        props.put("booking.rate-limit.enabled", false);
+        // Command-line arguments outrank application.properties
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return app.run(args);
+    }
+
+    private static List<Long> seedFacilities(FacilityRepository repository, int count) {
+        List<Facility> facilities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            facilities.add(new Facility("Load Room " + i, "Load Test Block", 10 + i));
+        }
+        return repository.saveAll(facilities).stream().map(Facility::getId).toList();
+    }
+
+    private static List<Long> seedUsers(UserRepository repository, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("load" + i + "@university.edu", "Load User " + i, "password", Role.STUDENT));
+        }
+        return repository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    private static Result run(LoadScenario scenario, String baseUrl, int clients, int requests,
+            List<Long> facilityIds, List<Long> userIds) throws Exception {
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, clients / 8));
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpExecutor)
+                .build();
+        LocalDate baseDate = LocalDate.now().plusDays(1);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        long[] latencies = new long[requests];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicLong created = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    LoadRequest next = scenario.next(facilityIds, userIds, baseDate);
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        status = http.send(toHttp(baseUrl, next), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    }
+                    latencies[recorded.getAndIncrement()] = System.nanoTime() - t0;
+                    if (status == 201) {
+                        created.incrementAndGet();
+                    } else if (status == 409) {
+                        conflicts.incrementAndGet();
+                    } else if (status == 503) {
+                        shed.incrementAndGet();
+                    } else if (status == 200 && !next.write()) {
+                        reads.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+        httpExecutor.shutdown();
+
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        return new Result(sorted.length, elapsed, sorted, created.get(), conflicts.get(), reads.get(),
+                shed.get(), errors.get());
+    }
+
+    private static HttpRequest toHttp(String baseUrl, LoadRequest request) {
+        if (!request.write()) {
+            String query = String.format("?facilityId=%d&date=%s&startTime=%s&endTime=%s",
+                    request.facilityId(), request.date(), request.startTime(), request.endTime());
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/check-availability" + query))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+        String body = String.format(
+                "{\"userId\":%d,\"facilityId\":%d,\"date\":\"%s\",\"startTime\":\"%s\",\"endTime\":\"%s\",\"purpose\":\"load test\"}",
+                request.userId(), request.facilityId(), request.date(), request.startTime(), request.endTime());
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void report(LoadScenario scenario, ThreadMode mode, int clients, Result result,
+            long doubleBookings) throws IOException {
+        double seconds = result.elapsedNanos() / 1e9;
+        long writes = result.created() + result.conflicts();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenario", scenario.name());
+        summary.put("threads", mode.name());
+        summary.put("clients", clients);
+        summary.put("requests", result.count());
+        summary.put("durationSeconds", round(seconds));
+        summary.put("throughputPerSecond", round(result.count() / seconds));
+        summary.put("p50Millis", round(result.percentile(0.50) / 1e6));
+        summary.put("p99Millis", round(result.percentile(0.99) / 1e6));
+        summary.put("p999Millis", round(result.percentile(0.999) / 1e6));
+        summary.put("maxMillis", round(result.percentile(1.0) / 1e6));
+        summary.put("created", result.created());
+        summary.put("conflicts", result.conflicts());
+        summary.put("conflictRate", writes == 0 ? 0 : round((double) result.conflicts() / writes));
+        summary.put("availabilityChecks", result.reads());
+        summary.put("shed", result.shed());
+        summary.put("errors", result.errors());
+        summary.put("doubleBookings", doubleBookings);
+
+        StringBuilder json = new StringBuilder("{\n");
+        summary.forEach((k, v) -> json.append("  \"").append(k).append("\": ")
+                .append(v instanceof String ? "\"" + v + "\"" : v).append(",\n"));
+        json.setLength(json.length() - 2);
+        json.append("\n}\n");
+
+        System.out.println();
+        System.out.println("=== Booking load test ===");
+        summary.forEach((k, v) -> System.out.printf(Locale.ROOT, "%-22s %s%n", k, v));
+        Path out = Path.of("target", "loadtest-result-" + mode.name().toLowerCase(Locale.ROOT) + ".json");
+        Files.createDirectories(out.getParent());
+        Files.writeString(out, json);
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private record Result(int count, long elapsedNanos, long[] sortedLatencies,
+            long created, long conflicts, long reads, long shed, long errors) {
+
+        long percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+    }
+
+    private enum ThreadMode {
+        PLATFORM, VIRTUAL;
+
+        static List<ThreadMode> parse(String value) {
+            List<ThreadMode> modes = "both".equalsIgnoreCase(value.trim())
+                    ? List.of(PLATFORM, VIRTUAL)
+                    : List.of(valueOf(value.trim().toUpperCase(Locale.ROOT)));
+            if (modes.contains(VIRTUAL) && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("loadtest.threads=" + value + " needs Java 21 or newer, running on "
+                        + Runtime.version());
+            }
+            return modes;
+        }
+    }
+}
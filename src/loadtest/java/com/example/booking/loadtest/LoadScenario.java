@@ -0,0 +1,69 @@
+package com.example.booking.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traffic shapes the load test can drive. Each call to {@link #next} picks the
+ * next request a client sends.
+ */
+public enum LoadScenario {
+
+    /** Every client races for the same few slots on a couple of facilities. */
+    HOT_SLOT {
+        @Override
+        LoadRequest next(List<Long> facilityIds, List<Long> userIds, LocalDate baseDate) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Long facilityId = facilityIds.get(random.nextInt(Math.min(2, facilityIds.size())));
+            LocalTime start = LocalTime.of(9 + random.nextInt(3), 0);
+            return LoadRequest.create(pick(userIds), facilityId, baseDate, start, start.plusHours(1));
+        }
+    },
+
+    /** Writes spread evenly over all facilities, the next 30 days and all hours. */
+    UNIFORM {
+        @Override
+        LoadRequest next(List<Long> facilityIds, List<Long> userIds, LocalDate baseDate) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate date = baseDate.plusDays(random.nextInt(30));
+            LocalTime start = LocalTime.of(8 + random.nextInt(12), 0);
+            return LoadRequest.create(pick(userIds), pick(facilityIds), date, start, start.plusHours(1));
+        }
+    },
+
+    /** Mostly availability checks with an occasional booking, like a busy calendar UI. */
+    READ_HEAVY {
+        @Override
+        LoadRequest next(List<Long> facilityIds, List<Long> userIds, LocalDate baseDate) {
+            LoadRequest write = UNIFORM.next(facilityIds, userIds, baseDate);
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                return write;
+            }
+            return LoadRequest.checkAvailability(write.facilityId(), write.date(), write.startTime(), write.endTime());
+        }
+    };
+
+    abstract LoadRequest next(List<Long> facilityIds, List<Long> userIds, LocalDate baseDate);
+
+    static LoadScenario parse(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+
+    private static Long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    record LoadRequest(boolean write, Long userId, Long facilityId, LocalDate date,
+            LocalTime startTime, LocalTime endTime) {
+
+        static LoadRequest create(Long userId, Long facilityId, LocalDate date, LocalTime start, LocalTime end) {
+            return new LoadRequest(true, userId, facilityId, date, start, end);
+        }
+
+        static LoadRequest checkAvailability(Long facilityId, LocalDate date, LocalTime start, LocalTime end) {
+            return new LoadRequest(false, null, facilityId, date, start, end);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.booking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded in-process caches for rarely changing reference data.
+ *
+ * Evictions and puts are deferred until the surrounding transaction commits,
+ * so a concurrent reader can never re-cache the row we are about to change.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String FACILITIES = "facilities";
+    public static final String FACILITY_LISTS = "facilityLists";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${booking.cache.spec:maximumSize=1000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(FACILITIES, FACILITY_LISTS);
+        caffeine.setCacheSpecification(spec);
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -28,9 +28,31 @@ public class DataSourceConfig {
     @Value("${DATABASE_URL}")
     private String databaseUrl;
 
+    @Value("${booking.datasource.idle-in-transaction-timeout:60s}")
+    private String idleInTransactionTimeout;
+
     @Bean
     @Primary
     public DataSource dataSource() {
+        HikariConfig config = fromRenderUrl(databaseUrl, "DATABASE_URL");
+        config.setConnectionTimeout(30000);
+        config.setMaximumPoolSize(10);
+        config.setMinimumIdle(2);
+        // Tags the hikaricp.connections.* gauges Actuator binds to this pool
+        config.setPoolName("booking-pool");
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        // An open write transaction holds back the delta-sync floor
+        config.addDataSourceProperty("options",
+                "-c idle_in_transaction_session_timeout=" + idleInTransactionTimeout);
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Builds a HikariConfig holding the JDBC URL and credentials from a
+     * Render-style URL. {@code variable} names the source in error messages.
+     */
+    static HikariConfig fromRenderUrl(String databaseUrl, String variable) {
         try {
             // Normalise scheme so java.net.URI can parse it
             String normalized = databaseUrl
@@ -59,15 +81,11 @@ public class DataSourceConfig {
             config.setJdbcUrl(jdbcUrl);
             config.setUsername(username);
             config.setPassword(password);
-            config.setConnectionTimeout(30000);
-            config.setMaximumPoolSize(10);
-            config.setMinimumIdle(2);
-
-            return new HikariDataSource(config);
+            return config;
 
         } catch (Exception e) {
             throw new IllegalStateException(
-                    "Failed to parse DATABASE_URL: " + databaseUrl, e);
+                    "Failed to parse " + variable + ": " + databaseUrl, e);
         }
     }
 }
@@ -0,0 +1,276 @@
+package com.example.booking.config;
+
+import com.example.booking.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Idempotency-Key support for booking mutations (POST, PUT, PATCH, DELETE
+ * under /api/bookings).
+ *
+ * The first request with a given key runs normally and its response is
+ * stored; retries with the same key and body get that response back, marked
+ * with Idempotent-Replayed, without reaching BookingService. A retry that
+ * arrives while the first attempt is still running waits for its outcome.
+ * Server errors and 429s are not stored, so they can be retried for real.
+ * Requests without the header are not affected.
+ *
+ * booking.idempotency.store=memory keeps keys per node; database shares them
+ * between nodes through the idempotency_keys table.
+ *
+ * Keyed requests are buffered to be fingerprinted, so their bodies are
+ * capped at booking.idempotency.max-body-bytes and larger ones get a 413.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(
+            @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${booking.idempotency.max-keys:100000}") long maxKeys) {
+        return new InMemoryIdempotencyStore(Duration.ofHours(ttlHours), maxKeys);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.idempotency.store", havingValue = "database")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbc,
+            @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${booking.idempotency.lease-seconds:60}") long leaseSeconds) {
+        return new JdbcIdempotencyStore(jdbc, Duration.ofHours(ttlHours), Duration.ofSeconds(leaseSeconds));
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+            ObjectMapper objectMapper,
+            @Value("${booking.idempotency.wait-millis:5000}") long waitMillis,
+            @Value("${booking.idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(store, objectMapper, waitMillis, maxBodyBytes));
+        registration.addUrlPatterns("/api/bookings", "/api/bookings/*");
+        // After the read-your-writes pinning, so a replayed write still counts as one
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    static class IdempotencyFilter extends OncePerRequestFilter {
+
+        private final IdempotencyStore store;
+        private final ObjectMapper objectMapper;
+        private final long waitMillis;
+        private final int maxBodyBytes;
+
+        IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, long waitMillis, int maxBodyBytes) {
+            this.store = store;
+            this.objectMapper = objectMapper;
+            this.waitMillis = waitMillis;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return switch (request.getMethod()) {
+                case "POST", "PUT", "PATCH", "DELETE" -> request.getHeader(IDEMPOTENCY_KEY) == null;
+                default -> true;
+            };
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain chain) throws ServletException, IOException {
+            String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+            if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+                writeError(request, response, HttpStatus.BAD_REQUEST, "Invalid Request",
+                        "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+                return;
+            }
+            // The same key may be reused on another endpoint without clashing
+            String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+            BufferedRequest buffered = request.getContentLengthLong() > maxBodyBytes
+                    ? null : BufferedRequest.read(request, maxBodyBytes);
+            if (buffered == null) {
+                writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Payload Too Large",
+                        "Requests with an Idempotency-Key may not exceed " + maxBodyBytes + " bytes.");
+                return;
+            }
+            String fingerprint = fingerprint(buffered);
+
+            long deadline = System.currentTimeMillis() + waitMillis;
+            IdempotencyStore.Claim claim;
+            while ((claim = store.claim(key, fingerprint)).state() == IdempotencyStore.Claim.State.IN_PROGRESS) {
+                if (System.currentTimeMillis() >= deadline) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                    writeError(request, response, HttpStatus.CONFLICT, "Request In Progress",
+                            "A request with this Idempotency-Key is still being processed. Please retry shortly.");
+                    return;
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServletException(e);
+                }
+            }
+
+            switch (claim.state()) {
+                case MISMATCH -> writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency Key Reused",
+                        "This Idempotency-Key was already used for a different request.");
+                case COMPLETED -> replay(claim.response(), response);
+                default -> run(key, buffered, response, chain);
+            }
+        }
+
+        private void run(String key, BufferedRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+            boolean stored = false;
+            try {
+                chain.doFilter(request, captured);
+                int status = captured.getStatus();
+                if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    store.complete(key, new IdempotencyStore.StoredResponse(
+                            status, captured.getContentType(), captured.getContentAsByteArray()));
+                    stored = true;
+                }
+            } finally {
+                if (!stored) {
+                    store.release(key);
+                }
+                captured.copyBodyToResponse();
+            }
+        }
+
+        private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response)
+                throws IOException {
+            response.setStatus(stored.status());
+            response.setHeader(REPLAYED, "true");
+            if (stored.contentType() != null) {
+                response.setContentType(stored.contentType());
+            }
+            if (stored.body() != null && stored.body().length > 0) {
+                response.setContentLength(stored.body().length);
+                response.getOutputStream().write(stored.body());
+            }
+        }
+
+        private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                String error, String message) throws IOException {
+            ApiError body = new ApiError(status.value(), error, message, "uri=" + request.getRequestURI());
+            response.setStatus(status.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+        }
+
+        private static String fingerprint(BufferedRequest request) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(request.body));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the whole request body up front so it can be fingerprinted and
+     * then read again by the controller.
+     */
+    static class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        /**
+         * Buffers the body, or returns null when it is longer than
+         * {@code maxBytes}; reads at most one byte past the limit.
+         */
+        static BufferedRequest read(HttpServletRequest request, int maxBytes) throws IOException {
+            byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+            return body.length > maxBytes ? null : new BufferedRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
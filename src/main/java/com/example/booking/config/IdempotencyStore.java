@@ -0,0 +1,48 @@
+package com.example.booking.config;
+
+/**
+ * Remembers the first outcome of a request sent with an Idempotency-Key, so
+ * that retries of it can be answered without running it again.
+ *
+ * A key is claimed before the request runs and completed with its response
+ * afterwards; a claim that did not produce a response worth keeping is
+ * released so a retry can run the request again.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims {@code key} for a request with the given fingerprint, or reports
+     * what the key already holds.
+     */
+    Claim claim(String key, String fingerprint);
+
+    void complete(String key, StoredResponse response);
+
+    void release(String key);
+
+    record StoredResponse(int status, String contentType, byte[] body) {}
+
+    /**
+     * Outcome of {@link #claim}; {@code response} is set for COMPLETED only.
+     */
+    record Claim(State state, StoredResponse response) {
+
+        enum State {
+            // The caller owns the key and must complete or release it
+            ACQUIRED,
+            // Another request with the same key and body is still running
+            IN_PROGRESS,
+            COMPLETED,
+            // The key was used for a different request
+            MISMATCH
+        }
+
+        static final Claim ACQUIRED = new Claim(State.ACQUIRED, null);
+        static final Claim IN_PROGRESS = new Claim(State.IN_PROGRESS, null);
+        static final Claim MISMATCH = new Claim(State.MISMATCH, null);
+
+        static Claim completed(StoredResponse response) {
+            return new Claim(State.COMPLETED, response);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.booking.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Per-node {@link IdempotencyStore}, bounded in size and evicting keys
+ * {@code ttl} after their last write. Enough for a single node or behind a
+ * sticky load balancer.
+ *
+ * Only completed keys count towards {@code maxKeys}: a claim whose request
+ * is still running weighs nothing, so size eviction can never free its key
+ * for a concurrent retry to run the request a second time.
+ */
+class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+
+    InMemoryIdempotencyStore(Duration ttl, long maxKeys) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxKeys)
+                .weigher((String key, Entry entry) -> entry.response() == null ? 0 : 1)
+                .build();
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        Entry existing = entries.asMap().putIfAbsent(key, new Entry(fingerprint, null));
+        if (existing == null) {
+            return Claim.ACQUIRED;
+        }
+        if (!existing.fingerprint().equals(fingerprint)) {
+            return Claim.MISMATCH;
+        }
+        return existing.response() == null ? Claim.IN_PROGRESS : Claim.completed(existing.response());
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        entries.asMap().computeIfPresent(key, (k, e) -> new Entry(e.fingerprint(), response));
+    }
+
+    @Override
+    public void release(String key) {
+        entries.invalidate(key);
+    }
+
+    private record Entry(String fingerprint, StoredResponse response) {}
+}
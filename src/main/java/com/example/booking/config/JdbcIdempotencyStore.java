@@ -0,0 +1,70 @@
+package com.example.booking.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link IdempotencyStore} in the idempotency_keys table (db/schema.sql), so
+ * that every node sees the same keys. A claim is a short lease until the
+ * request completes: a node that dies mid-request leaves a row that expires
+ * after {@code lease} and can then be claimed again.
+ */
+class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbc;
+    private final long ttlSeconds;
+    private final long leaseSeconds;
+
+    JdbcIdempotencyStore(JdbcTemplate jdbc, Duration ttl, Duration lease) {
+        this.jdbc = jdbc;
+        this.ttlSeconds = ttl.toSeconds();
+        this.leaseSeconds = lease.toSeconds();
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        // Inserts, or takes over a row whose lease or retention has run out
+        int claimed = jdbc.update("INSERT INTO idempotency_keys (key, fingerprint, expires_at) "
+                + "VALUES (?, ?, now() + make_interval(secs => ?)) "
+                + "ON CONFLICT (key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = NULL, "
+                + "content_type = NULL, body = NULL, created_at = now(), expires_at = EXCLUDED.expires_at "
+                + "WHERE idempotency_keys.expires_at < now()",
+                key, fingerprint, leaseSeconds);
+        if (claimed == 1) {
+            return Claim.ACQUIRED;
+        }
+        List<Claim> existing = jdbc.query(
+                "SELECT fingerprint, status, content_type, body FROM idempotency_keys WHERE key = ?",
+                (rs, n) -> {
+                    if (!rs.getString("fingerprint").equals(fingerprint)) {
+                        return Claim.MISMATCH;
+                    }
+                    int status = rs.getInt("status");
+                    return rs.wasNull() ? Claim.IN_PROGRESS : Claim.completed(
+                            new StoredResponse(status, rs.getString("content_type"), rs.getBytes("body")));
+                },
+                key);
+        // Deleted by the cleanup in between: let the caller wait and retry
+        return existing.isEmpty() ? Claim.IN_PROGRESS : existing.get(0);
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbc.update("UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?, "
+                + "expires_at = now() + make_interval(secs => ?) WHERE key = ?",
+                response.status(), response.contentType(), response.body(), ttlSeconds, key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbc.update("DELETE FROM idempotency_keys WHERE key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.cleanup-millis:600000}")
+    public void deleteExpired() {
+        jdbc.update("DELETE FROM idempotency_keys WHERE expires_at < now()");
+    }
+}
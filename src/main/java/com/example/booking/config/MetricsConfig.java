@@ -0,0 +1,29 @@
+package com.example.booking.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on service methods. Timers are published as
+ * percentile histograms (see management.metrics.distribution.* in
+ * application.properties) and scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Timer for BookingService operations, tagged with {@code operation}. */
+    public static final String BOOKING_OPERATIONS = "booking.operations";
+
+    /** Timer for FacilityService operations, tagged with {@code operation}. */
+    public static final String FACILITY_OPERATIONS = "facility.operations";
+
+    /** Counter of requests rejected by GlobalExceptionHandler, tagged with {@code reason}. */
+    public static final String BOOKING_REJECTIONS = "booking.rejections";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.booking.config;
+
+import com.example.booking.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limits on /api/bookings and /api/facilities, so a few busy
+ * scripts cannot take the whole connection pool.
+ *
+ * Every request takes a token from the bucket of its client address and, when
+ * a user header is configured and present, from the bucket of that user;
+ * either one running dry is answered with 429 and a Retry-After before any
+ * controller or database work.
+ *
+ * The client address is the socket address, never a header the client could
+ * vary per request. Behind a proxy, let Tomcat's RemoteIpValve resolve it
+ * from X-Forwarded-For for trusted proxies only (server.forward-headers-strategy
+ * and server.tomcat.remoteip.internal-proxies). The user header is off by
+ * default and must only be set when a gateway authenticates it. Reads (GET, HEAD) and writes have separate buckets with
+ * their own limits. Buckets idle for idle-minutes are dropped; a dropped
+ * bucket comes back full, which is where an idle client's bucket would be
+ * anyway. Limits are per node.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${booking.rate-limit.read.capacity:100}") long readCapacity,
+            @Value("${booking.rate-limit.read.per-second:20}") double readPerSecond,
+            @Value("${booking.rate-limit.write.capacity:20}") long writeCapacity,
+            @Value("${booking.rate-limit.write.per-second:5}") double writePerSecond,
+            @Value("${booking.rate-limit.user-header:}") String userHeader,
+            @Value("${booking.rate-limit.idle-minutes:10}") long idleMinutes,
+            @Value("${booking.rate-limit.max-keys:100000}") long maxKeys) {
+        RateLimitFilter filter = new RateLimitFilter(objectMapper, registry,
+                new TokenBucket.Limit(readCapacity, readPerSecond),
+                new TokenBucket.Limit(writeCapacity, writePerSecond),
+                userHeader, Duration.ofMinutes(idleMinutes), maxKeys);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/bookings", "/api/bookings/*", "/api/facilities", "/api/facilities/*");
+        // Ahead of read-your-writes and idempotency: a throttled request leaves no trace
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    static class RateLimitFilter extends OncePerRequestFilter {
+
+        private final ObjectMapper objectMapper;
+        private final TokenBucket.Limit readLimit;
+        private final TokenBucket.Limit writeLimit;
+        private final String userHeader;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter[] throttled;
+
+        RateLimitFilter(ObjectMapper objectMapper, MeterRegistry registry, TokenBucket.Limit readLimit,
+                TokenBucket.Limit writeLimit, String userHeader, Duration idle, long maxKeys) {
+            this.objectMapper = objectMapper;
+            this.readLimit = readLimit;
+            this.writeLimit = writeLimit;
+            this.userHeader = userHeader.trim();
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(idle)
+                    .maximumSize(maxKeys)
+                    .build();
+            this.throttled = new Counter[] {
+                    throttled(registry, "read", "ip"), throttled(registry, "read", "user"),
+                    throttled(registry, "write", "ip"), throttled(registry, "write", "user")};
+            Gauge.builder("booking.rate-limit.keys", buckets, Cache::estimatedSize)
+                    .description("Rate limit buckets currently tracked")
+                    .register(registry);
+        }
+
+        private static Counter throttled(MeterRegistry registry, String endpointClass, String scope) {
+            return Counter.builder("booking.rate-limit.throttled")
+                    .description("Requests refused with 429 by the rate limiter")
+                    .tag("class", endpointClass)
+                    .tag("scope", scope)
+                    .register(registry);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain chain) throws ServletException, IOException {
+            boolean write = switch (request.getMethod()) {
+                case "GET", "HEAD", "OPTIONS" -> false;
+                default -> true;
+            };
+            TokenBucket.Limit limit = write ? writeLimit : readLimit;
+            String endpointClass = write ? "write" : "read";
+            long now = System.nanoTime();
+
+            long waitNanos = take("ip:" + endpointClass + ":" + request.getRemoteAddr(), limit, now);
+            int counter = write ? 2 : 0;
+            String user = userHeader.isEmpty() ? null : request.getHeader(userHeader);
+            if (waitNanos == 0 && user != null && !user.isBlank()) {
+                waitNanos = take("user:" + endpointClass + ":" + user.trim(), limit, now);
+                counter++;
+            }
+            if (waitNanos > 0) {
+                throttled[counter].increment();
+                reject(request, response, waitNanos);
+                return;
+            }
+            chain.doFilter(request, response);
+        }
+
+        private long take(String key, TokenBucket.Limit limit, long now) {
+            return buckets.get(key, k -> new TokenBucket(limit, now)).tryTake(now);
+        }
+
+        private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+                throws IOException {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            ApiError body = new ApiError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+                    "Request rate limit exceeded. Please retry after " + retryAfter + " seconds.",
+                    "uri=" + request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.booking.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Sends read-only transactions to a PostgreSQL read replica when
+ * DATABASE_REPLICA_URL is set; writes keep using the primary pool.
+ *
+ * The primary {@code dataSource} bean (from {@link DataSourceConfig} or Spring
+ * Boot) is wrapped in a lazy proxy that fetches the physical connection only
+ * once the transaction's read-only flag is known. Clients that wrote recently
+ * stay on the primary for a short window so they always read their own writes.
+ *
+ * DATABASE_REPLICA_URL accepts the same Render-style URL as DATABASE_URL, or a
+ * plain jdbc: URL that reuses the primary's username and password.
+ */
+@Configuration
+@ConditionalOnProperty(name = "DATABASE_REPLICA_URL")
+public class ReadReplicaConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)
+                        || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                return new ReplicaRoutingDataSource(primary, replicaPool(env));
+            }
+        };
+    }
+
+    private static HikariDataSource replicaPool(Environment env) {
+        String url = env.getRequiredProperty("DATABASE_REPLICA_URL");
+        HikariConfig config;
+        if (url.startsWith("jdbc:")) {
+            config = new HikariConfig();
+            config.setJdbcUrl(url);
+            config.setUsername(env.getProperty("spring.datasource.username"));
+            config.setPassword(env.getProperty("spring.datasource.password"));
+        } else {
+            config = DataSourceConfig.fromRenderUrl(url, "DATABASE_REPLICA_URL");
+        }
+        config.setConnectionTimeout(30000);
+        config.setMaximumPoolSize(env.getProperty("booking.datasource.replica.maximum-pool-size", Integer.class, 10));
+        config.setMinimumIdle(2);
+        config.setReadOnly(true);
+        config.setPoolName("booking-replica-pool");
+        return new HikariDataSource(config);
+    }
+
+    /** Publishes hikaricp.connections.* gauges for the replica pool too. */
+    @Bean
+    public MeterBinder replicaPoolMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ReplicaRoutingDataSource routing) {
+                routing.replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            Environment env) {
+        long stickyMillis = env.getProperty("booking.datasource.replica.sticky-millis", Long.class, 5000L);
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(Duration.ofMillis(stickyMillis)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Lazy proxy over the primary whose read-only connections come from the
+     * replica, unless the current thread is pinned to the primary.
+     */
+    static class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final DataSource primary;
+        private final HikariDataSource replica;
+
+        ReplicaRoutingDataSource(DataSource primary, HikariDataSource replica) {
+            super(primary);
+            this.primary = primary;
+            this.replica = replica;
+            setReadOnlyDataSource(new DelegatingDataSource(replica) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return ReplicaRouting.isPinnedToPrimary() ? primary.getConnection() : replica.getConnection();
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            replica.close();
+            if (primary instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Remembers clients that just sent a write and pins their requests to the
+     * primary until the replica has had time to catch up. Clients are keyed by
+     * their socket address, never a header the client could set itself; behind
+     * a proxy, Tomcat rewrites it from X-Forwarded-For for trusted proxies only
+     * (server.forward-headers-strategy, as for RateLimitConfig). The memory is
+     * per node, which is enough behind a sticky load balancer.
+     */
+    static class ReadYourWritesFilter extends OncePerRequestFilter {
+
+        private final Cache<String, Boolean> recentWriters;
+
+        ReadYourWritesFilter(Duration stickyFor) {
+            this.recentWriters = Caffeine.newBuilder()
+                    .expireAfterWrite(stickyFor)
+                    .maximumSize(100_000)
+                    .build();
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain chain) throws ServletException, IOException {
+            String client = request.getRemoteAddr();
+            boolean write = switch (request.getMethod()) {
+                case "GET", "HEAD", "OPTIONS" -> false;
+                default -> true;
+            };
+            boolean pinned = (write || recentWriters.getIfPresent(client) != null)
+                    && ReplicaRouting.pinToPrimary();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (pinned) {
+                    ReplicaRouting.unpin();
+                }
+                if (write) {
+                    // Stamped after the response so the window starts at commit
+                    recentWriters.put(client, Boolean.TRUE);
+                }
+            }
+        }
+    }
+}
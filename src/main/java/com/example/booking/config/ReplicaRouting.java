@@ -0,0 +1,60 @@
+package com.example.booking.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread switch that keeps read-only work on the primary database when a
+ * read replica is configured. Without a replica it has no effect.
+ *
+ * Pinning only affects connections fetched while it is in place, so it must
+ * wrap the whole transaction, not just part of one.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    /**
+     * Runs {@code work} with read-only transactions routed to the primary.
+     * Used for loads whose result is cached, so replica lag cannot be frozen
+     * into the cache. Inside an existing transaction the work simply shares
+     * that transaction's connection.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        boolean pinned = pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            if (pinned) {
+                unpin();
+            }
+        }
+    }
+
+    /**
+     * Pins the current thread to the primary. Returns false if it already was,
+     * in which case the caller must not {@link #unpin()}.
+     */
+    public static boolean pinToPrimary() {
+        if (isPinnedToPrimary()) {
+            return false;
+        }
+        PINNED.set(Boolean.TRUE);
+        return true;
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.booking.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole state is one timestamp: the instant the
+ * bucket will be full again. Taking a token pushes it one refill interval
+ * further; the bucket is empty once it lies {@code capacity} intervals ahead
+ * of now. A single CAS per request, no lock and no refill thread.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(Limit limit, long nowNanos) {
+        this.intervalNanos = limit.intervalNanos();
+        this.burstNanos = limit.capacity() * intervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if there is one. Returns 0 when it was taken, otherwise
+     * the nanoseconds until the next token is available.
+     */
+    long tryTake(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // A bucket that refilled completely does not bank tokens beyond capacity
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Bucket size and refill rate of one endpoint class.
+     */
+    record Limit(long capacity, double perSecond) {
+
+        Limit {
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit needs capacity >= 1 and per-second > 0");
+            }
+        }
+
+        long intervalNanos() {
+            return Math.max(1, (long) (1_000_000_000L / perSecond));
+        }
+    }
+}
@@ -1,16 +1,42 @@
 package com.example.booking.controller;
 
+import com.example.booking.dto.AvailabilityGrid;
+import com.example.booking.dto.BookingBatchRequest;
+import com.example.booking.dto.BookingBatchResponse;
+import com.example.booking.dto.BookingChanges;
+import com.example.booking.dto.BookingFilter;
+import com.example.booking.dto.BookingPage;
 import com.example.booking.dto.BookingRequest;
 import com.example.booking.dto.BookingResponse;
-import com.example.booking.model.Booking;
+import com.example.booking.dto.BookingSeriesRequest;
+import com.example.booking.dto.BookingSeriesResponse;
+import com.example.booking.dto.BookingSeriesUpdateRequest;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.service.AvailabilityService;
+import com.example.booking.service.BookingChangeFeed;
+import com.example.booking.service.BookingExporter;
 import com.example.booking.service.BookingService;
+import com.example.booking.service.BookingWriteQueue;
+import com.example.booking.service.BookingWrites;
+import com.example.booking.service.CollectionVersions;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -18,17 +44,90 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    // Slot-claiming writes go through here so their locks precede the transaction
+    private final BookingWrites bookingWrites;
+    private final BookingExporter bookingExporter;
+    private final AvailabilityService availabilityService;
+    private final BookingChangeFeed changeFeed;
+    private final CollectionVersions collectionVersions;
+    // Only present with booking.write-queue.enabled=true
+    private final BookingWriteQueue writeQueue;
+    private final boolean fullListEnabled;
+    private final CacheControl facilityListCacheControl;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService,
+            BookingWrites bookingWrites,
+            BookingExporter bookingExporter,
+            AvailabilityService availabilityService,
+            BookingChangeFeed changeFeed,
+            CollectionVersions collectionVersions,
+            ObjectProvider<BookingWriteQueue> writeQueue,
+            @Value("${booking.api.full-list-enabled:false}") boolean fullListEnabled,
+            @Value("${booking.http.facility-bookings-max-age-seconds:0}") long facilityListMaxAgeSeconds) {
         this.bookingService = bookingService;
+        this.bookingWrites = bookingWrites;
+        this.bookingExporter = bookingExporter;
+        this.availabilityService = availabilityService;
+        this.changeFeed = changeFeed;
+        this.collectionVersions = collectionVersions;
+        this.writeQueue = writeQueue.getIfAvailable();
+        this.fullListEnabled = fullListEnabled;
+        // Booking lists name the users who booked, so shared caches must not keep them
+        this.facilityListCacheControl = ConditionalGet.privateCacheControl(facilityListMaxAgeSeconds);
     }
 
     @GetMapping
+    public ResponseEntity<BookingPage> getBookings(
+            @RequestParam(required = false) Long facilityId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        BookingFilter filter = new BookingFilter(facilityId, userId, status, from, to);
+        BookingPage page = bookingService.getBookingPage(filter, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // Legacy unpaginated list; must be asked for explicitly with ?all=true
+    @GetMapping(params = "all=true")
     public ResponseEntity<List<BookingResponse>> getAllBookings() {
+        if (!fullListEnabled) {
+            throw new IllegalArgumentException("Unpaginated booking list is disabled");
+        }
         List<BookingResponse> bookings = bookingService.getAllBookings();
         return ResponseEntity.ok(bookings);
     }
 
+    @GetMapping("/export")
+    public void exportBookings(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long facilityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        BookingExporter.Format exportFormat = BookingExporter.Format.parse(format);
+        BookingFilter filter = new BookingFilter(facilityId, null, null, from, to);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"bookings." + exportFormat.getExtension() + "\"");
+        bookingExporter.export(filter, exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Bookings changed since {@code since} (a token from a previous call).
+     * Call without a token to get a starting token.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<BookingChanges> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(bookingService.getChangesSince(since, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingResponse> getBookingById(@PathVariable Long id) {
         BookingResponse booking = bookingService.getBookingById(id);
@@ -37,15 +136,53 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
-        BookingResponse created = bookingService.createBooking(request);
+        BookingResponse created = writeQueue != null
+                ? writeQueue.create(request)
+                : bookingWrites.createBooking(request);
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BookingBatchResponse> createBookings(@Valid @RequestBody BookingBatchRequest request) {
+        BookingBatchResponse response = bookingWrites.createBookings(request.getBookings());
+        HttpStatus status = response.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return new ResponseEntity<>(response, status);
+    }
+
+    /**
+     * Creates a daily or weekly recurring booking. All occurrences are
+     * created, or none when any of them clashes with an existing booking.
+     */
+    @PostMapping("/series")
+    public ResponseEntity<BookingSeriesResponse> createSeries(@Valid @RequestBody BookingSeriesRequest request) {
+        BookingSeriesResponse created = bookingWrites.createSeries(request);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/series/{id}")
+    public ResponseEntity<BookingSeriesResponse> getSeries(@PathVariable Long id) {
+        return ResponseEntity.ok(bookingService.getSeries(id));
+    }
+
+    // Applies to occurrences that have not started yet
+    @PutMapping("/series/{id}")
+    public ResponseEntity<BookingSeriesResponse> updateSeries(
+            @PathVariable Long id,
+            @Valid @RequestBody BookingSeriesUpdateRequest request) {
+        return ResponseEntity.ok(bookingWrites.updateSeries(id, request));
+    }
+
+    @PutMapping("/series/{id}/cancel")
+    public ResponseEntity<Void> cancelSeries(@PathVariable Long id) {
+        bookingService.cancelSeries(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookingResponse> updateBooking(
             @PathVariable Long id,
             @Valid @RequestBody BookingRequest request) {
-        BookingResponse updated = bookingService.updateBooking(id, request);
+        BookingResponse updated = bookingWrites.updateBooking(id, request);
         return ResponseEntity.ok(updated);
     }
 
@@ -73,6 +210,33 @@ public class BookingController {
         return ResponseEntity.ok(isAvailable);
     }
 
+    @GetMapping("/availability-grid")
+    public ResponseEntity<AvailabilityGrid> getAvailabilityGrid(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<Long> facilityIds,
+            @RequestParam(defaultValue = "30") int slotMinutes) {
+        AvailabilityGrid grid = availabilityService.getAvailabilityGrid(from, to, facilityIds, slotMinutes);
+        return ResponseEntity.ok(grid);
+    }
+
+    /**
+     * Live feed of booking changes as server-sent events, optionally limited
+     * to some facilities. Browsers resume automatically via Last-Event-ID;
+     * other clients can pass the last seen event id as {@code since}.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Set<Long> facilityIds,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Stop reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return changeFeed.subscribe(facilityIds, lastEventId != null ? lastEventId : since);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<BookingResponse>> getBookingsByUser(@PathVariable Long userId) {
         List<BookingResponse> bookings = bookingService.getBookingsByUser(userId);
@@ -80,8 +244,9 @@ public class BookingController {
     }
 
     @GetMapping("/facility/{facilityId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByFacility(@PathVariable Long facilityId) {
-        List<BookingResponse> bookings = bookingService.getBookingsByFacility(facilityId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponse>> getBookingsByFacility(@PathVariable Long facilityId,
+            WebRequest request) {
+        return ConditionalGet.respond(request, collectionVersions.facilityBookingsTag(facilityId),
+                facilityListCacheControl, () -> bookingService.getBookingsByFacility(facilityId));
     }
 }
\ No newline at end of file
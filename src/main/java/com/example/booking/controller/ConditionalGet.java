@@ -0,0 +1,98 @@
+package com.example.booking.controller;
+
+import com.example.booking.config.ReplicaRouting;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET with 304 when the client already holds the current version
+ * of a collection, before anything is loaded or serialized.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, CacheControl cacheControl,
+            Supplier<T> body) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        // The tag may come from a lagging replica; the primary's data is never older than it
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(ReplicaRouting.onPrimary(body));
+    }
+
+    /**
+     * Same as {@link #respond} for collections that are cheap to load, for
+     * instance from a cache: the tag is computed from the loaded body, so it
+     * always describes exactly what is sent.
+     */
+    static <T> ResponseEntity<T> respondByContent(WebRequest request, Function<T, String> etagOf,
+            CacheControl cacheControl, Supplier<T> body) {
+        T loaded = ReplicaRouting.onPrimary(body);
+        String etag = etagOf.apply(loaded);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(loaded);
+    }
+
+    /**
+     * Shared caching for {@code maxAgeSeconds}, or revalidation on every use
+     * (still answered cheaply with 304) when it is zero.
+     */
+    static CacheControl cacheControl(long maxAgeSeconds) {
+        return maxAge(maxAgeSeconds).cachePublic();
+    }
+
+    /**
+     * Like {@link #cacheControl} but for the client's own cache only, for
+     * responses that carry user data and must not be kept by shared caches.
+     */
+    static CacheControl privateCacheControl(long maxAgeSeconds) {
+        return maxAge(maxAgeSeconds).cachePrivate();
+    }
+
+    private static CacheControl maxAge(long maxAgeSeconds) {
+        return maxAgeSeconds > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                : CacheControl.noCache();
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix added by a proxy still matches
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.booking.controller;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,9 +17,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.booking.model.Facility;
+import com.example.booking.service.CollectionVersions;
 import com.example.booking.service.FacilityService;
 
 @RestController
@@ -23,14 +31,32 @@ import com.example.booking.service.FacilityService;
 public class FacilityController {
     
     private final FacilityService facilityService;
+    private final CollectionVersions collectionVersions;
+    private final CacheControl listCacheControl;
     
-    public FacilityController(FacilityService facilityService) {
+    public FacilityController(FacilityService facilityService,
+            CollectionVersions collectionVersions,
+            @Value("${booking.http.facilities-max-age-seconds:10}") long maxAgeSeconds) {
         this.facilityService = facilityService;
+        this.collectionVersions = collectionVersions;
+        this.listCacheControl = ConditionalGet.cacheControl(maxAgeSeconds);
     }
     
     @GetMapping
-    public ResponseEntity<List<Facility>> getAllFacilities() {
-        List<Facility> facilities = facilityService.getAllFacilities();
+    public ResponseEntity<List<Facility>> getAllFacilities(WebRequest request) {
+        return ConditionalGet.respondByContent(request, collectionVersions::facilitiesTag, listCacheControl,
+                facilityService::getAllFacilities);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Facility>> searchFreeFacilities(
+            @RequestParam(defaultValue = "1") int minCapacity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<Facility> facilities = facilityService.searchFreeFacilities(
+                minCapacity, date, startTime, endTime, limit);
         return ResponseEntity.ok(facilities);
     }
     
@@ -61,8 +87,8 @@ public class FacilityController {
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<Facility>> getAvailableFacilities() {
-        List<Facility> facilities = facilityService.getAvailableFacilities();
-        return ResponseEntity.ok(facilities);
+    public ResponseEntity<List<Facility>> getAvailableFacilities(WebRequest request) {
+        return ConditionalGet.respondByContent(request, collectionVersions::facilitiesTag, listCacheControl,
+                facilityService::getAvailableFacilities);
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Free and busy intervals for a set of facilities over a date range.
+ * Free intervals are aligned to the requested slot size and lie within
+ * operating hours; busy intervals are the merged active bookings.
+ */
+public record AvailabilityGrid(
+        LocalDate from,
+        LocalDate to,
+        int slotMinutes,
+        List<FacilityAvailability> facilities) {
+
+    public record FacilityAvailability(
+            Long facilityId,
+            String facilityName,
+            boolean available,
+            List<DayAvailability> days) {
+    }
+
+    public record DayAvailability(
+            LocalDate date,
+            List<TimeRange> busy,
+            List<TimeRange> free) {
+    }
+}
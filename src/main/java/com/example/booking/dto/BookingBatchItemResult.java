@@ -0,0 +1,51 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+public class BookingBatchItemResult {
+    
+    public enum Outcome {
+        CREATED,
+        INVALID,
+        NOT_FOUND,
+        UNAVAILABLE,
+        CONFLICT
+    }
+    
+    private int index;
+    private Outcome outcome;
+    private String message;
+    private List<String> details;
+    private BookingResponse booking;
+    
+    // Constructors
+    public BookingBatchItemResult() {}
+    
+    public BookingBatchItemResult(int index, Outcome outcome, String message) {
+        this.index = index;
+        this.outcome = outcome;
+        this.message = message;
+    }
+    
+    public static BookingBatchItemResult created(int index, BookingResponse booking) {
+        BookingBatchItemResult result = new BookingBatchItemResult(index, Outcome.CREATED, null);
+        result.setBooking(booking);
+        return result;
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public Outcome getOutcome() { return outcome; }
+    public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public List<String> getDetails() { return details; }
+    public void setDetails(List<String> details) { this.details = details; }
+    
+    public BookingResponse getBooking() { return booking; }
+    public void setBooking(BookingResponse booking) { this.booking = booking; }
+}
@@ -0,0 +1,24 @@
+package com.example.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BookingBatchRequest {
+    
+    // Items are validated one by one in BookingService so each gets its own result
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = 500, message = "A batch cannot contain more than 500 bookings")
+    private List<BookingRequest> bookings;
+    
+    // Constructors
+    public BookingBatchRequest() {}
+    
+    public BookingBatchRequest(List<BookingRequest> bookings) {
+        this.bookings = bookings;
+    }
+    
+    // Getters and Setters
+    public List<BookingRequest> getBookings() { return bookings; }
+    public void setBookings(List<BookingRequest> bookings) { this.bookings = bookings; }
+}
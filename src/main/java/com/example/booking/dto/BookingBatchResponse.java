@@ -0,0 +1,30 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+public class BookingBatchResponse {
+    private int created;
+    private int rejected;
+    private List<BookingBatchItemResult> results;
+    
+    // Constructors
+    public BookingBatchResponse() {}
+    
+    public BookingBatchResponse(List<BookingBatchItemResult> results) {
+        this.results = results;
+        this.created = (int) results.stream()
+                .filter(r -> r.getOutcome() == BookingBatchItemResult.Outcome.CREATED)
+                .count();
+        this.rejected = results.size() - created;
+    }
+    
+    // Getters and Setters
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+    
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+    
+    public List<BookingBatchItemResult> getResults() { return results; }
+    public void setResults(List<BookingBatchItemResult> results) { this.results = results; }
+}
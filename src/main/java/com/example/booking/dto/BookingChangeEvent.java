@@ -0,0 +1,41 @@
+package com.example.booking.dto;
+
+import com.example.booking.model.Booking;
+import com.example.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Compact description of a committed booking change, pushed to live clients.
+ * Carries the booking's state after the change (its last state for deletes);
+ * {@code previousFacilityId} is set when an update moved it to another facility.
+ */
+public record BookingChangeEvent(
+        Type type,
+        Long bookingId,
+        Long facilityId,
+        Long userId,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        BookingStatus status,
+        String purpose,
+        Long previousFacilityId) {
+
+    public enum Type {
+        CREATED, UPDATED, CANCELLED, DELETED
+    }
+
+    public static BookingChangeEvent of(Type type, Booking booking) {
+        return moved(type, booking, null);
+    }
+
+    public static BookingChangeEvent moved(Type type, Booking booking, Long previousFacilityId) {
+        Long facilityId = booking.getFacility().getId();
+        return new BookingChangeEvent(type, booking.getId(), facilityId,
+                booking.getUser().getId(), booking.getDate(), booking.getStartTime(),
+                booking.getEndTime(), booking.getStatus(), booking.getPurpose(),
+                facilityId.equals(previousFacilityId) ? null : previousFacilityId);
+    }
+}
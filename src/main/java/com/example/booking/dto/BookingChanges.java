@@ -0,0 +1,19 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+/**
+ * Bookings changed since a change token. {@code changed} holds the current
+ * state of inserted or updated bookings and {@code deleted} the ids of
+ * bookings that were removed. Pass {@code nextToken} to the next call; when
+ * {@code hasMore} is set, call again straight away. {@code reset} means the
+ * client's token was too old (or missing): reload everything, then continue
+ * from {@code nextToken}.
+ */
+public record BookingChanges(
+        List<BookingResponse> changed,
+        List<Long> deleted,
+        String nextToken,
+        boolean hasMore,
+        boolean reset) {
+}
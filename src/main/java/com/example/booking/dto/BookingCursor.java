@@ -0,0 +1,38 @@
+package com.example.booking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (date, startTime, id) ordering used by paginated listings.
+ * Encoded as an opaque URL-safe string so clients just echo it back.
+ */
+public record BookingCursor(LocalDate date, LocalTime startTime, Long id) {
+
+    public static BookingCursor after(BookingResponse booking) {
+        return new BookingCursor(booking.getDate(), booking.getStartTime(), booking.getId());
+    }
+
+    public String encode() {
+        String raw = date + "|" + startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor: " + token);
+            }
+            return new BookingCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]),
+                    Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+
+import com.example.booking.model.BookingStatus;
+
+/**
+ * Optional server-side filters for booking listings. Null fields are ignored.
+ */
+public class BookingFilter {
+    private Long facilityId;
+    private Long userId;
+    private BookingStatus status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    
+    // Constructors
+    public BookingFilter() {}
+    
+    public BookingFilter(Long facilityId, Long userId, BookingStatus status,
+                         LocalDate fromDate, LocalDate toDate) {
+        this.facilityId = facilityId;
+        this.userId = userId;
+        this.status = status;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+    
+    // Getters and Setters
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+    
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+    
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+}
@@ -0,0 +1,24 @@
+package com.example.booking.dto;
+
+import java.util.List;
+
+public class BookingPage {
+    private List<BookingResponse> items;
+    // Null when there are no more rows
+    private String nextCursor;
+    
+    // Constructors
+    public BookingPage() {}
+    
+    public BookingPage(List<BookingResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<BookingResponse> getItems() { return items; }
+    public void setItems(List<BookingResponse> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
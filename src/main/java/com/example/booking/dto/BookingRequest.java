@@ -6,6 +6,10 @@ import java.time.LocalTime;
 
 public class BookingRequest {
     
+    // Facilities can be booked between these times only
+    public static final LocalTime OPENING_TIME = LocalTime.of(8, 0);
+    public static final LocalTime CLOSING_TIME = LocalTime.of(20, 0);
+    
     @NotNull(message = "User ID is required")
     private Long userId;
     
@@ -40,9 +44,7 @@ public class BookingRequest {
     @AssertTrue(message = "Booking times must be within operating hours (08:00 - 20:00)")
     private boolean isWithinOperatingHours() {
         if (startTime == null || endTime == null) return true; // Let @NotNull handle nulls
-        LocalTime open = LocalTime.of(8, 0);
-        LocalTime close = LocalTime.of(20, 0);
-        return !startTime.isBefore(open) && !endTime.isAfter(close);
+        return !startTime.isBefore(OPENING_TIME) && !endTime.isAfter(CLOSING_TIME);
     }
     
     @Size(max = 500, message = "Purpose cannot exceed 500 characters")
@@ -18,11 +18,30 @@ public class BookingResponse {
     private LocalTime endTime;
     private BookingStatus status;
     private String purpose;
+    private Long seriesId;
     private LocalDateTime createdAt;
     
     // Constructors
     public BookingResponse() {}
     
+    // Used by the JPQL constructor projections in BookingRepository
+    public BookingResponse(Long id, Long userId, String userName, Long facilityId, String facilityName,
+                           LocalDate date, LocalTime startTime, LocalTime endTime,
+                           BookingStatus status, String purpose, Long seriesId, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.facilityId = facilityId;
+        this.facilityName = facilityName;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.purpose = purpose;
+        this.seriesId = seriesId;
+        this.createdAt = createdAt;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -57,6 +76,9 @@ public class BookingResponse {
     public String getPurpose() { return purpose; }
     public void setPurpose(String purpose) { this.purpose = purpose; }
     
+    public Long getSeriesId() { return seriesId; }
+    public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
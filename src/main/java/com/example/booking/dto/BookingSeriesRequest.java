@@ -0,0 +1,106 @@
+package com.example.booking.dto;
+
+import com.example.booking.model.SeriesFrequency;
+import jakarta.validation.constraints.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public class BookingSeriesRequest {
+    
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    @NotNull(message = "Facility ID is required")
+    private Long facilityId;
+    
+    @NotNull(message = "Frequency is required")
+    private SeriesFrequency frequency;
+    
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date must be present or future")
+    private LocalDate startDate;
+    
+    // The series ends on endDate or after a number of occurrences, not both
+    private LocalDate endDate;
+    
+    @Min(value = 1, message = "Occurrences must be at least 1")
+    private Integer occurrences;
+    
+    // Dates the rule would produce but that should be skipped (holidays etc.);
+    // as in iCalendar they still count towards occurrences
+    private Set<LocalDate> exceptDates;
+    
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+    
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+    
+    @Size(max = 500, message = "Purpose cannot exceed 500 characters")
+    private String purpose;
+    
+    @AssertTrue(message = "Give either an end date or a number of occurrences")
+    private boolean isEndGivenOnce() {
+        return (endDate == null) != (occurrences == null);
+    }
+    
+    @AssertTrue(message = "End date must not be before start date")
+    private boolean isEndDateAfterStartDate() {
+        return endDate == null || startDate == null || !endDate.isBefore(startDate);
+    }
+    
+    @AssertTrue(message = "Cannot book in the past")
+    private boolean isNotInPast() {
+        if (startDate == null || startTime == null) return true;
+        LocalDate today = LocalDate.now();
+        if (startDate.isAfter(today)) return true;
+        if (startDate.isBefore(today)) return false;
+        return startTime.isAfter(LocalTime.now());
+    }
+    
+    @AssertTrue(message = "End time must be after start time")
+    private boolean isEndTimeAfterStartTime() {
+        return startTime != null && endTime != null && endTime.isAfter(startTime);
+    }
+    
+    @AssertTrue(message = "Booking times must be within operating hours (08:00 - 20:00)")
+    private boolean isWithinOperatingHours() {
+        if (startTime == null || endTime == null) return true;
+        return !startTime.isBefore(BookingRequest.OPENING_TIME) && !endTime.isAfter(BookingRequest.CLOSING_TIME);
+    }
+    
+    // Constructors
+    public BookingSeriesRequest() {}
+    
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+    
+    public SeriesFrequency getFrequency() { return frequency; }
+    public void setFrequency(SeriesFrequency frequency) { this.frequency = frequency; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public Integer getOccurrences() { return occurrences; }
+    public void setOccurrences(Integer occurrences) { this.occurrences = occurrences; }
+    
+    public Set<LocalDate> getExceptDates() { return exceptDates; }
+    public void setExceptDates(Set<LocalDate> exceptDates) { this.exceptDates = exceptDates; }
+    
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+    
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+    
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+}
@@ -0,0 +1,58 @@
+package com.example.booking.dto;
+
+import com.example.booking.model.SeriesFrequency;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class BookingSeriesResponse {
+    private Long id;
+    private Long userId;
+    private Long facilityId;
+    private SeriesFrequency frequency;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer occurrences;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String purpose;
+    // Every booking of the series, cancelled and past ones included, in date order
+    private List<BookingResponse> bookings;
+    
+    // Constructors
+    public BookingSeriesResponse() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+    
+    public SeriesFrequency getFrequency() { return frequency; }
+    public void setFrequency(SeriesFrequency frequency) { this.frequency = frequency; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public Integer getOccurrences() { return occurrences; }
+    public void setOccurrences(Integer occurrences) { this.occurrences = occurrences; }
+    
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+    
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+    
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+    
+    public List<BookingResponse> getBookings() { return bookings; }
+    public void setBookings(List<BookingResponse> bookings) { this.bookings = bookings; }
+}
@@ -0,0 +1,50 @@
+package com.example.booking.dto;
+
+import jakarta.validation.constraints.*;
+import java.time.LocalTime;
+
+/**
+ * New facility, times and purpose for every upcoming occurrence of a series.
+ * Dates stay as the series produced them.
+ */
+public class BookingSeriesUpdateRequest {
+    
+    @NotNull(message = "Facility ID is required")
+    private Long facilityId;
+    
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+    
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+    
+    @Size(max = 500, message = "Purpose cannot exceed 500 characters")
+    private String purpose;
+    
+    @AssertTrue(message = "End time must be after start time")
+    private boolean isEndTimeAfterStartTime() {
+        return startTime != null && endTime != null && endTime.isAfter(startTime);
+    }
+    
+    @AssertTrue(message = "Booking times must be within operating hours (08:00 - 20:00)")
+    private boolean isWithinOperatingHours() {
+        if (startTime == null || endTime == null) return true;
+        return !startTime.isBefore(BookingRequest.OPENING_TIME) && !endTime.isAfter(BookingRequest.CLOSING_TIME);
+    }
+    
+    // Constructors
+    public BookingSeriesUpdateRequest() {}
+    
+    // Getters and Setters
+    public Long getFacilityId() { return facilityId; }
+    public void setFacilityId(Long facilityId) { this.facilityId = facilityId; }
+    
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+    
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+    
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+}
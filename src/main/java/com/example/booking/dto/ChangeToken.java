@@ -0,0 +1,46 @@
+package com.example.booking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the booking change log, handed to clients as an opaque
+ * URL-safe string.
+ *
+ * {@code afterVersion}/{@code afterId} is where the next read starts
+ * (exclusive). While a client pages through a large backlog,
+ * {@code passFloor} carries the floor captured when that pass began; it is
+ * 0 between passes. {@code issuedAt} (epoch millis) lets the server detect
+ * tokens older than the tombstone retention window.
+ */
+public record ChangeToken(long afterVersion, long afterId, long passFloor, long issuedAt) {
+
+    /** Start of a new pass: everything at or above {@code floor}. */
+    public static ChangeToken from(long floor, long issuedAt) {
+        return new ChangeToken(floor, 0, 0, issuedAt);
+    }
+
+    public boolean midPass() {
+        return passFloor > 0;
+    }
+
+    public String encode() {
+        String raw = afterVersion + "|" + afterId + "|" + passFloor + "|" + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed change token: " + token);
+            }
+            return new ChangeToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed change token: " + token, e);
+        }
+    }
+}
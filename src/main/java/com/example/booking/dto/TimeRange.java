@@ -0,0 +1,9 @@
+package com.example.booking.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Half-open time interval [start, end) within a single day.
+ */
+public record TimeRange(LocalTime start, LocalTime end) {
+}
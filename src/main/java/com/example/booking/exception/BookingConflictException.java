@@ -1,7 +1,47 @@
 package com.example.booking.exception;
 
+import java.sql.SQLException;
+import java.util.List;
+
 public class BookingConflictException extends RuntimeException {
+
+    // PostgreSQL exclusion_violation, raised by the per-partition no-overlap constraints
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // What clashed, when more than one thing could have (e.g. dates of a series)
+    private final List<String> details;
+
     public BookingConflictException(String message) {
+        this(message, List.of());
+    }
+
+    public BookingConflictException(String message, List<String> details) {
         super(message);
+        this.details = details;
+    }
+
+    public BookingConflictException(String message, Throwable cause) {
+        super(message, cause);
+        this.details = List.of();
+    }
+
+    public List<String> getDetails() {
+        return details;
+    }
+
+    /**
+     * Returns true if the exception was caused by the database rejecting an
+     * overlapping booking.
+     */
+    public static boolean isOverlapViolation(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,12 @@
 package com.example.booking.exception;
 
+import com.example.booking.config.MetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -9,6 +14,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,9 +23,31 @@ import java.util.List;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Counter notFound;
+    private final Counter conflicts;
+    private final Counter validationRejections;
+    private final Counter invalidState;
+    private final Counter busy;
+
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.notFound = rejections(registry, "not_found");
+        this.conflicts = rejections(registry, "conflict");
+        this.validationRejections = rejections(registry, "validation");
+        this.invalidState = rejections(registry, "invalid_state");
+        this.busy = rejections(registry, "busy");
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder(MetricsConfig.BOOKING_REJECTIONS)
+                .description("Requests rejected with a client error")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiError> handleEntityNotFound(
             EntityNotFoundException ex, WebRequest request) {
+        notFound.increment();
         ApiError error = new ApiError(
                 HttpStatus.NOT_FOUND.value(),
                 "Not Found",
@@ -31,17 +59,44 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(BookingConflictException.class)
     public ResponseEntity<ApiError> handleBookingConflict(
             BookingConflictException ex, WebRequest request) {
+        conflicts.increment();
         ApiError error = new ApiError(
                 HttpStatus.CONFLICT.value(),
                 "Time Slot Unavailable",
                 "That time slot is already booked. Please choose a different time.",
-                request.getDescription(false));
+                request.getDescription(false),
+                ex.getDetails().isEmpty() ? null : ex.getDetails());
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiError> handleServiceBusy(
+            ServiceBusyException ex, WebRequest request) {
+        busy.increment();
+        ApiError error = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Busy",
+                "The booking service is busy right now. Please try again shortly.",
+                request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex, WebRequest request) {
+        // Overlaps caught by the exclusion constraint at flush/commit time
+        if (BookingConflictException.isOverlapViolation(ex)) {
+            return handleBookingConflict(new BookingConflictException(ex.getMessage(), ex), request);
+        }
+        return handleGenericException(ex, request);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ApiError> handleIllegalState(
             IllegalStateException ex, WebRequest request) {
+        invalidState.increment();
         String msg = ex.getMessage() != null ? ex.getMessage() : "";
         String userMessage;
         if (msg.contains("already cancelled")) {
@@ -50,6 +105,8 @@ public class GlobalExceptionHandler {
             userMessage = "This facility is currently unavailable for booking.";
         } else if (msg.contains("Cannot update a cancelled")) {
             userMessage = "A cancelled booking cannot be modified.";
+        } else if (msg.contains("Cannot update a completed")) {
+            userMessage = "This booking has already taken place and can no longer be modified.";
         } else {
             userMessage = "Unable to complete this action. Please try again.";
         }
@@ -64,6 +121,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleIllegalArgument(
             IllegalArgumentException ex, WebRequest request) {
+        validationRejections.increment();
         ApiError error = new ApiError(
                 HttpStatus.BAD_REQUEST.value(),
                 "Invalid Request",
@@ -72,9 +130,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex, WebRequest request) {
+        validationRejections.increment();
+        ApiError error = new ApiError(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid Request",
+                "Please check your input and try again.",
+                request.getDescription(false),
+                List.of(ex.getName() + ": invalid value '" + ex.getValue() + "'"));
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
+        validationRejections.increment();
         List<String> details = new ArrayList<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
@@ -94,6 +166,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiError> handleConstraintViolation(
             ConstraintViolationException ex, WebRequest request) {
+        validationRejections.increment();
         List<String> details = new ArrayList<>();
         ex.getConstraintViolations().forEach(violation -> {
             details.add(violation.getMessage());
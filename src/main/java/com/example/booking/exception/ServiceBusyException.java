@@ -0,0 +1,19 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a request could not be admitted to the database tier in time.
+ * Mapped to 503 with a Retry-After hint.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -5,32 +5,44 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
 @Table(name = "bookings")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so Hibernate can batch inserts (IDENTITY disables batching)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
     
+    // Foreign keys are declared in db/schema.sql: Hibernate cannot see them
+    // on the partitioned table and would try to re-add them on every start
     @ManyToOne
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
     
     @ManyToOne
-    @JoinColumn(name = "facility_id", nullable = false)
+    @JoinColumn(name = "facility_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Facility facility;
     
+    // Part of the primary key (id, date): updates and deletes name the partition
+    @PartitionKey
     @Column(nullable = false)
     private LocalDate date;
     
@@ -45,9 +57,19 @@ public class Booking {
     
     private String purpose;
     
+    // Set for occurrences of a recurring series (BookingSeries); kept as a
+    // plain id so series-wide changes can be single UPDATE statements
+    @Column(name = "series_id")
+    private Long seriesId;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Id of the transaction that last wrote this row; maintained by the
+    // bookings_stamp_change trigger (db/schema.sql), read-only here
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -91,6 +113,11 @@ public class Booking {
     public String getPurpose() { return purpose; }
     public void setPurpose(String purpose) { this.purpose = purpose; }
     
+    public Long getSeriesId() { return seriesId; }
+    public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Long getChangeVersion() { return changeVersion; }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.booking.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Date of each booking, keyed by id alone. bookings is partitioned by date,
+ * so queries use this to find a booking's partition from its id. Maintained
+ * by a trigger in db/schema.sql; read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "booking_dates")
+public class BookingDate {
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    protected BookingDate() {
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.booking.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * The rule a recurring booking was created from. Its occurrences are plain
+ * rows in bookings carrying this series' id in series_id.
+ */
+@Entity
+@Table(name = "booking_series")
+public class BookingSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Foreign keys are declared in db/schema.sql with ON DELETE CASCADE, like
+    // those of bookings, so deleting a facility or user still works
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+    
+    @ManyToOne
+    @JoinColumn(name = "facility_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Facility facility;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SeriesFrequency frequency;
+    
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    
+    // Exactly one of endDate and occurrences was given when the series was created
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    
+    private Integer occurrences;
+    
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+    
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+    
+    @Column(length = 500)
+    private String purpose;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public BookingSeries() {}
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    
+    public Facility getFacility() { return facility; }
+    public void setFacility(Facility facility) { this.facility = facility; }
+    
+    public SeriesFrequency getFrequency() { return frequency; }
+    public void setFrequency(SeriesFrequency frequency) { this.frequency = frequency; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public Integer getOccurrences() { return occurrences; }
+    public void setOccurrences(Integer occurrences) { this.occurrences = occurrences; }
+    
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+    
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+    
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
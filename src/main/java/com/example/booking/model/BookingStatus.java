@@ -4,5 +4,14 @@ public enum BookingStatus {
     CONFIRMED,
     CANCELLED,
     COMPLETED,
-    PENDING
+    PENDING;
+
+    /**
+     * Whether a booking in this status holds its slot. Same as the
+     * {@code status IN ('CONFIRMED', 'PENDING')} used by the overlap
+     * constraint and the conflict queries.
+     */
+    public boolean isActive() {
+        return this == CONFIRMED || this == PENDING;
+    }
 }
\ No newline at end of file
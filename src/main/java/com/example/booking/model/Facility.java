@@ -1,6 +1,8 @@
 package com.example.booking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +10,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Table(name = "facilities")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facilities")
 public class Facility {
 
     @Id
@@ -1,34 +1,307 @@
 package com.example.booking.repository;
 
+import com.example.booking.dto.BookingResponse;
 import com.example.booking.model.Booking;
 import com.example.booking.model.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     List<Booking> findByUserId(Long userId);
     List<Booking> findByFacilityId(Long facilityId);
     List<Booking> findByStatus(BookingStatus status);
     
+    // Response projections: one joined SELECT, no managed entities
+    String RESPONSE_SELECT = "SELECT new com.example.booking.dto.BookingResponse(" +
+           "b.id, u.id, u.name, f.id, f.name, b.date, b.startTime, b.endTime, " +
+           "b.status, b.purpose, b.seriesId, b.createdAt) " +
+           "FROM Booking b JOIN b.user u JOIN b.facility f ";
+    
+    @Query(RESPONSE_SELECT)
+    List<BookingResponse> findAllResponses();
+    
+    @Query(RESPONSE_SELECT + "WHERE u.id = :userId")
+    List<BookingResponse> findResponsesByUserId(@Param("userId") Long userId);
+    
+    @Query(RESPONSE_SELECT + "WHERE f.id = :facilityId")
+    List<BookingResponse> findResponsesByFacilityId(@Param("facilityId") Long facilityId);
+    
+    @Query(RESPONSE_SELECT + "WHERE b.id IN :ids")
+    List<BookingResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(RESPONSE_SELECT + "WHERE b.seriesId = :seriesId ORDER BY b.date, b.startTime, b.id")
+    List<BookingResponse> findResponsesBySeriesId(@Param("seriesId") Long seriesId);
+    
+    // Lookups by id alone: the date comes from booking_dates, so PostgreSQL
+    // prunes every partition but the booking's own at execution time
+    String IN_OWN_PARTITION = "b.id = :id AND b.date = " +
+           "(SELECT d.date FROM BookingDate d WHERE d.bookingId = :id)";
+    
+    @Query(RESPONSE_SELECT + "WHERE " + IN_OWN_PARTITION)
+    Optional<BookingResponse> findResponseById(@Param("id") Long id);
+    
+    /** findById that touches only the booking's own partition. */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.facility WHERE " + IN_OWN_PARTITION)
+    Optional<Booking> findPartitionedById(@Param("id") Long id);
+    
+    /**
+     * Oldest transaction id still running. Every transaction below it has
+     * finished, so its changes are already visible to any later query.
+     *
+     * Only transactions that have written something count; read-only ones,
+     * however long, do not hold it back. A long write transaction does: until
+     * it ends, every delta-sync pass starts from its id again and re-reads
+     * what changed since it began. Nothing is lost, but passes grow, so this
+     * application's own sessions are cut off when idle inside a transaction
+     * (booking.datasource.idle-in-transaction-timeout), and bulk jobs
+     * run elsewhere should commit in batches.
+     */
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)",
+           nativeQuery = true)
+    long currentChangeFloor();
+    
+    /**
+     * Changed rows ('U') and tombstones ('D') after the (version, id)
+     * position, in that order. Each branch is a range scan on its
+     * (version, id) index.
+     */
+    @Query(value = "SELECT c.kind AS kind, c.id AS id, c.version AS version FROM (" +
+           "(SELECT 'U' AS kind, b.id AS id, b.change_version AS version FROM bookings b " +
+           "WHERE (b.change_version, b.id) > (:afterVersion, :afterId) " +
+           "ORDER BY b.change_version, b.id LIMIT :limit) " +
+           "UNION ALL " +
+           "(SELECT 'D', t.booking_id, t.deleted_version FROM booking_tombstones t " +
+           "WHERE (t.deleted_version, t.booking_id) > (:afterVersion, :afterId) " +
+           "ORDER BY t.deleted_version, t.booking_id LIMIT :limit)) c " +
+           "ORDER BY c.version, c.id LIMIT :limit",
+           nativeQuery = true)
+    List<ChangeRow> findChangesAfter(
+            @Param("afterVersion") long afterVersion,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+    
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "booking_tombstones"))
+    @Query(value = "DELETE FROM booking_tombstones WHERE deleted_at < :cutoff", nativeQuery = true)
+    int deleteTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * Creates missing monthly partitions up to {@code monthsAhead} months
+     * ahead (see bookings_ensure_partitions in db/schema.sql).
+     */
+    @Transactional
+    @Query(value = "SELECT bookings_ensure_partitions(:monthsAhead)", nativeQuery = true)
+    int ensurePartitions(@Param("monthsAhead") int monthsAhead);
+    
+    /**
+     * Moves monthly partitions ending on or before {@code cutoff} into
+     * bookings_archive and returns how many were moved.
+     */
+    @Transactional
+    @Query(value = "SELECT bookings_archive_partitions(:cutoff)", nativeQuery = true)
+    int archivePartitionsBefore(@Param("cutoff") LocalDate cutoff);
+    
+    /**
+     * Earliest date in [from, to] that still has CONFIRMED bookings, or null.
+     */
+    @Query("SELECT MIN(b.date) FROM Booking b WHERE b.status = 'CONFIRMED' " +
+           "AND b.date BETWEEN :fromDate AND :toDate")
+    LocalDate findFirstConfirmedDate(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+    
+    // Conflict checks only consider CONFIRMED/PENDING: ended bookings are
+    // COMPLETED (BookingCompletionJob) and can no longer clash with a new one
     @Query("SELECT b FROM Booking b WHERE b.facility.id = :facilityId " +
-           "AND b.date = :date AND b.status != 'CANCELLED'")
+           "AND b.date = :date AND b.status IN ('CONFIRMED', 'PENDING')")
     List<Booking> findActiveBookingsByFacilityAndDate(
             @Param("facilityId") Long facilityId, 
             @Param("date") LocalDate date);
     
+    @Query("SELECT b.id AS id, b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+           "WHERE b.facility.id = :facilityId AND b.date = :date AND b.status IN ('CONFIRMED', 'PENDING')")
+    List<BookingSlot> findActiveSlotsByFacilityAndDate(
+            @Param("facilityId") Long facilityId,
+            @Param("date") LocalDate date);
+    
+    @Query("SELECT b.facility.id AS facilityId, b.date AS date, b.id AS id, " +
+           "b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+           "WHERE b.facility.id IN :facilityIds AND b.date BETWEEN :fromDate AND :toDate " +
+           "AND b.status IN ('CONFIRMED', 'PENDING')")
+    List<FacilitySlot> findActiveSlotsByFacilitiesAndDateRange(
+            @Param("facilityIds") Collection<Long> facilityIds,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT b.facility.id AS facilityId, b.date AS date, b.id AS id, " +
+           "b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+           "WHERE b.date BETWEEN :fromDate AND :toDate AND b.status IN ('CONFIRMED', 'PENDING')")
+    List<FacilitySlot> findActiveSlotsByDateRange(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+    
+    /**
+     * Positions (1-based) of the {@code days} that already have an active
+     * booking on the facility overlapping [startTime, endTime), ignoring
+     * bookings of the series {@code excludeSeriesId} (none when null). The
+     * candidate days are one array parameter, so a whole series is checked in
+     * a single query; the BETWEEN bounds let PostgreSQL skip partitions
+     * outside the series.
+     */
+    @Query(value = "SELECT DISTINCT d.n FROM unnest(CAST(:days AS date[])) WITH ORDINALITY AS d(day, n) " +
+           "JOIN bookings b ON b.date = d.day " +
+           "WHERE b.facility_id = :facilityId AND b.date BETWEEN :fromDate AND :toDate " +
+           "AND b.status IN ('CONFIRMED', 'PENDING') " +
+           "AND b.start_time < :endTime AND b.end_time > :startTime " +
+           "AND b.series_id IS DISTINCT FROM CAST(:excludeSeriesId AS bigint) " +
+           "ORDER BY d.n",
+           nativeQuery = true)
+    List<Long> findConflictingDays(
+            @Param("facilityId") Long facilityId,
+            @Param("days") LocalDate[] days,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime,
+            @Param("excludeSeriesId") Long excludeSeriesId);
+    
+    // Occurrences of a series that are still active and have not started by :now
+    String UPCOMING_SERIES_OCCURRENCES = "series_id = :seriesId " +
+           "AND status IN ('CONFIRMED', 'PENDING') AND date + start_time > :now ";
+    
+    String WRITTEN_BOOKING_COLUMNS = "id AS \"id\", facility_id AS \"facilityId\", " +
+           "user_id AS \"userId\", date AS \"date\", start_time AS \"startTime\", " +
+           "end_time AS \"endTime\", purpose AS \"purpose\"";
+    
+    @Query(value = "SELECT " + WRITTEN_BOOKING_COLUMNS + " FROM bookings WHERE " +
+           UPCOMING_SERIES_OCCURRENCES + "ORDER BY date",
+           nativeQuery = true)
+    List<WrittenBooking> findUpcomingSeriesOccurrences(
+            @Param("seriesId") Long seriesId,
+            @Param("now") LocalDateTime now);
+    
+    // Run by BookingRepositoryImpl, which returns the rows as WrittenBooking
+    String CANCEL_UPCOMING_SERIES_OCCURRENCES = "UPDATE bookings SET status = 'CANCELLED' WHERE " +
+           UPCOMING_SERIES_OCCURRENCES + "RETURNING " + WRITTEN_BOOKING_COLUMNS;
+    
+    String UPDATE_UPCOMING_SERIES_OCCURRENCES = "UPDATE bookings SET facility_id = :facilityId, " +
+           "start_time = :startTime, end_time = :endTime, purpose = :purpose WHERE " +
+           UPCOMING_SERIES_OCCURRENCES + "RETURNING " + WRITTEN_BOOKING_COLUMNS;
+    
+    // Run by BookingRepositoryImpl#completeEndedBookings, which returns the rows
+    String COMPLETE_ENDED_BOOKINGS = "UPDATE bookings SET status = 'COMPLETED' " +
+           "WHERE date BETWEEN :fromDate AND CAST(:now AS date) AND id IN (" +
+           "SELECT id FROM bookings WHERE status = 'CONFIRMED' " +
+           "AND date BETWEEN :fromDate AND CAST(:now AS date) AND date + end_time <= :now " +
+           "ORDER BY date, start_time, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "RETURNING " + WRITTEN_BOOKING_COLUMNS;
+    
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
            "WHERE b.facility.id = :facilityId AND b.date = :date " +
-           "AND b.status != 'CANCELLED' " +
-           "AND ((b.startTime <= :endTime AND b.endTime >= :startTime))")
+           "AND b.status IN ('CONFIRMED', 'PENDING') " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime")
     boolean existsConflictingBooking(
             @Param("facilityId") Long facilityId,
             @Param("date") LocalDate date,
             @Param("startTime") LocalTime startTime,
             @Param("endTime") LocalTime endTime);
-}
\ No newline at end of file
+    
+    /**
+     * Insert behind {@link BookingRepositoryCustom#insertIfFree}. Two
+     * concurrent inserts can both pass the NOT EXISTS; the exclusion
+     * constraint then rejects the second.
+     *
+     * The id is bound by the caller from Booking's own id generator, so both
+     * write paths share one allocator. An id drawn for an insert that finds
+     * the slot taken is simply never used.
+     */
+    String INSERT_IF_FREE = "WITH inserted AS (" +
+           "INSERT INTO bookings (id, user_id, facility_id, date, start_time, end_time, status, purpose, created_at) " +
+           "SELECT CAST(:id AS bigint), u.id, f.id, CAST(:date AS date), CAST(:startTime AS time), " +
+           "CAST(:endTime AS time), 'CONFIRMED', CAST(:purpose AS varchar), CAST(:createdAt AS timestamp) " +
+           "FROM users u JOIN facilities f ON f.id = :facilityId AND f.is_available " +
+           "WHERE u.id = :userId AND NOT EXISTS (SELECT 1 FROM bookings b " +
+           "WHERE b.facility_id = :facilityId AND b.date = CAST(:date AS date) " +
+           "AND b.status IN ('CONFIRMED', 'PENDING') " +
+           "AND b.start_time < CAST(:endTime AS time) AND b.end_time > CAST(:startTime AS time)) " +
+           "RETURNING *) " +
+           "SELECT i.id AS \"id\", i.user_id AS \"userId\", u.name AS \"userName\", " +
+           "i.facility_id AS \"facilityId\", f.name AS \"facilityName\", i.date AS \"date\", " +
+           "i.start_time AS \"startTime\", i.end_time AS \"endTime\", i.status AS \"status\", " +
+           "i.purpose AS \"purpose\", i.created_at AS \"createdAt\" " +
+           "FROM inserted i JOIN users u ON u.id = i.user_id JOIN facilities f ON f.id = i.facility_id";
+    
+    /**
+     * Lightweight view of an active booking's time slot, used to build the
+     * in-memory availability index without loading full entities.
+     */
+    interface BookingSlot {
+        Long getId();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+    }
+    
+    /**
+     * Booking slot together with the facility-day it belongs to.
+     */
+    interface FacilitySlot extends BookingSlot {
+        Long getFacilityId();
+        LocalDate getDate();
+    }
+    
+    /**
+     * Booking row as written by a bulk statement: a series-wide update or
+     * cancel, or a completion chunk.
+     */
+    interface WrittenBooking {
+        Long getId();
+        Long getFacilityId();
+        Long getUserId();
+        LocalDate getDate();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+        String getPurpose();
+    }
+    
+    /**
+     * Booking written by {@link BookingRepositoryCustom#insertIfFree}, with what BookingResponse needs.
+     */
+    interface InsertedBooking {
+        Long getId();
+        Long getUserId();
+        String getUserName();
+        Long getFacilityId();
+        String getFacilityName();
+        LocalDate getDate();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+        BookingStatus getStatus();
+        String getPurpose();
+        LocalDateTime getCreatedAt();
+    }
+    
+    /**
+     * One entry of the change log: kind is 'U' for an inserted or updated
+     * booking and 'D' for a deleted one.
+     */
+    interface ChangeRow {
+        String getKind();
+        Long getId();
+        Long getVersion();
+    }
+}
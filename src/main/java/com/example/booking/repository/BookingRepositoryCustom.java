@@ -0,0 +1,63 @@
+package com.example.booking.repository;
+
+import com.example.booking.dto.BookingCursor;
+import com.example.booking.dto.BookingFilter;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.repository.BookingRepository.InsertedBooking;
+import com.example.booking.repository.BookingRepository.WrittenBooking;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Queries whose shape depends on which filters are present, and native
+ * writes that return the rows they touched.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} bookings matching the filter, ordered by
+     * (date, startTime, id) and strictly after {@code after} when it is not null.
+     */
+    List<BookingResponse> findResponsePage(BookingFilter filter, BookingCursor after, int limit);
+
+    /**
+     * Streams every booking matching the filter in (date, startTime, id) order
+     * through a server-side cursor. Must be consumed and closed inside a
+     * transaction.
+     */
+    Stream<BookingResponse> streamResponses(BookingFilter filter, int fetchSize);
+
+    /**
+     * Creates a CONFIRMED booking in one statement, but only if the user
+     * exists, the facility exists and is available, and no active booking
+     * overlaps the slot. Returns the new row with the user and facility
+     * names, or nothing when any of those checks failed.
+     */
+    Optional<InsertedBooking> insertIfFree(Long userId, Long facilityId, LocalDate date,
+            LocalTime startTime, LocalTime endTime, String purpose, LocalDateTime createdAt);
+
+    /**
+     * Cancels every upcoming occurrence of a series in one statement and
+     * returns the cancelled rows.
+     */
+    List<WrittenBooking> cancelUpcomingSeriesOccurrences(Long seriesId, LocalDateTime now);
+
+    /**
+     * Moves every upcoming occurrence of a series to the given facility and
+     * times in one statement and returns the updated rows.
+     */
+    List<WrittenBooking> updateUpcomingSeriesOccurrences(Long seriesId, LocalDateTime now,
+            Long facilityId, LocalTime startTime, LocalTime endTime, String purpose);
+
+    /**
+     * Marks up to {@code limit} CONFIRMED bookings dated from {@code fromDate}
+     * to {@code now}'s date that ended by {@code now} as COMPLETED, oldest
+     * first, in one statement and its own transaction, and returns them. Rows
+     * locked by other transactions are skipped and picked up by a later run.
+     */
+    List<WrittenBooking> completeEndedBookings(LocalDate fromDate, LocalDateTime now, int limit);
+}
@@ -0,0 +1,206 @@
+package com.example.booking.repository;
+
+import com.example.booking.dto.BookingCursor;
+import com.example.booking.dto.BookingFilter;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.model.Booking;
+import com.example.booking.repository.BookingRepository.InsertedBooking;
+import com.example.booking.repository.BookingRepository.WrittenBooking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Override
+    public List<BookingResponse> findResponsePage(BookingFilter filter, BookingCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.RESPONSE_SELECT).append("WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+
+        if (after != null) {
+            // Row-value comparison lets PostgreSQL seek straight into the composite index
+            jpql.append("AND (b.date, b.startTime, b.id) > (:afterDate, :afterStart, :afterId) ");
+            params.put("afterDate", after.date());
+            params.put("afterStart", after.startTime());
+            params.put("afterId", after.id());
+        }
+        jpql.append("ORDER BY b.date, b.startTime, b.id");
+
+        TypedQuery<BookingResponse> query = entityManager.createQuery(jpql.toString(), BookingResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<BookingResponse> streamResponses(BookingFilter filter, int fetchSize) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.RESPONSE_SELECT).append("WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+        appendFilter(filter, jpql, params);
+        jpql.append("ORDER BY b.date, b.startTime, b.id");
+
+        TypedQuery<BookingResponse> query = entityManager.createQuery(jpql.toString(), BookingResponse.class);
+        params.forEach(query::setParameter);
+        // With a fetch size PostgreSQL returns rows in chunks instead of all at once
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    @Override
+    public Optional<InsertedBooking> insertIfFree(Long userId, Long facilityId, LocalDate date,
+            LocalTime startTime, LocalTime endTime, String purpose, LocalDateTime createdAt) {
+        NativeQuery<Tuple> query = bookingWrite(BookingRepository.INSERT_IF_FREE)
+                .addScalar("id", Long.class)
+                .addScalar("userId", Long.class)
+                .addScalar("userName", String.class)
+                .addScalar("facilityId", Long.class)
+                .addScalar("facilityName", String.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("startTime", LocalTime.class)
+                .addScalar("endTime", LocalTime.class)
+                .addScalar("status", String.class)
+                .addScalar("purpose", String.class)
+                .addScalar("createdAt", LocalDateTime.class);
+        query.setParameter("id", nextBookingId());
+        query.setParameter("userId", userId);
+        query.setParameter("facilityId", facilityId);
+        query.setParameter("date", date);
+        query.setParameter("startTime", startTime);
+        query.setParameter("endTime", endTime);
+        query.setParameter("purpose", purpose);
+        query.setParameter("createdAt", createdAt);
+        return returnedRows(query, InsertedBooking.class).stream().findFirst();
+    }
+
+    @Override
+    public List<WrittenBooking> cancelUpcomingSeriesOccurrences(Long seriesId, LocalDateTime now) {
+        NativeQuery<Tuple> query = writtenBookingWrite(BookingRepository.CANCEL_UPCOMING_SERIES_OCCURRENCES);
+        query.setParameter("seriesId", seriesId);
+        query.setParameter("now", now);
+        return returnedRows(query, WrittenBooking.class);
+    }
+
+    @Override
+    public List<WrittenBooking> updateUpcomingSeriesOccurrences(Long seriesId, LocalDateTime now,
+            Long facilityId, LocalTime startTime, LocalTime endTime, String purpose) {
+        NativeQuery<Tuple> query = writtenBookingWrite(BookingRepository.UPDATE_UPCOMING_SERIES_OCCURRENCES);
+        query.setParameter("seriesId", seriesId);
+        query.setParameter("now", now);
+        query.setParameter("facilityId", facilityId);
+        query.setParameter("startTime", startTime);
+        query.setParameter("endTime", endTime);
+        query.setParameter("purpose", purpose);
+        return returnedRows(query, WrittenBooking.class);
+    }
+
+    @Override
+    @Transactional
+    public List<WrittenBooking> completeEndedBookings(LocalDate fromDate, LocalDateTime now, int limit) {
+        NativeQuery<Tuple> query = writtenBookingWrite(BookingRepository.COMPLETE_ENDED_BOOKINGS);
+        query.setParameter("fromDate", fromDate);
+        query.setParameter("now", now);
+        query.setParameter("limit", limit);
+        return returnedRows(query, WrittenBooking.class);
+    }
+
+    private NativeQuery<Tuple> writtenBookingWrite(String sql) {
+        return bookingWrite(sql)
+                .addScalar("id", Long.class)
+                .addScalar("facilityId", Long.class)
+                .addScalar("userId", Long.class)
+                .addScalar("date", LocalDate.class)
+                .addScalar("startTime", LocalTime.class)
+                .addScalar("endTime", LocalTime.class)
+                .addScalar("purpose", String.class);
+    }
+
+    /**
+     * Next id from Booking's own generator (bookings_id_seq through
+     * Hibernate's pooled optimizer), as persist would assign it.
+     */
+    private Long nextBookingId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel().getEntityDescriptor(Booking.class).getGenerator();
+        return (Long) generator.generate(session, null, null, EventType.INSERT);
+    }
+
+    /**
+     * Native INSERT/UPDATE ... RETURNING on bookings. Pending changes are
+     * flushed first so the statement sees them. Declaring bookings as the
+     * only query space keeps Hibernate from invalidating the user and
+     * facility caches.
+     */
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Tuple> bookingWrite(String sql) {
+        entityManager.flush();
+        NativeQuery<Tuple> query = entityManager.createNativeQuery(sql, Tuple.class).unwrap(NativeQuery.class);
+        return query.addSynchronizedEntityClass(Booking.class);
+    }
+
+    /**
+     * Runs the statement and clears the persistence context, as
+     * {@code @Modifying(clearAutomatically = true)} would, so no managed
+     * Booking keeps the state it had before the write.
+     */
+    private <T> List<T> returnedRows(NativeQuery<Tuple> query, Class<T> type) {
+        List<Tuple> rows = query.getResultList();
+        entityManager.clear();
+        return rows.stream().map(row -> projectionFactory.createProjection(type, toMap(row))).toList();
+    }
+
+    private static Map<String, Object> toMap(Tuple row) {
+        Map<String, Object> values = new HashMap<>();
+        for (TupleElement<?> element : row.getElements()) {
+            values.put(element.getAlias(), row.get(element));
+        }
+        return values;
+    }
+
+    static void appendFilter(BookingFilter filter, StringBuilder jpql, Map<String, Object> params) {
+        if (filter.getFacilityId() != null) {
+            jpql.append("AND f.id = :facilityId ");
+            params.put("facilityId", filter.getFacilityId());
+        }
+        if (filter.getUserId() != null) {
+            jpql.append("AND u.id = :userId ");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getStatus() != null) {
+            jpql.append("AND b.status = :status ");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getFromDate() != null) {
+            jpql.append("AND b.date >= :fromDate ");
+            params.put("fromDate", filter.getFromDate());
+        }
+        if (filter.getToDate() != null) {
+            jpql.append("AND b.date <= :toDate ");
+            params.put("toDate", filter.getToDate());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.booking.repository;
+
+import com.example.booking.model.BookingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+}
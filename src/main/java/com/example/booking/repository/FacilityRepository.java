@@ -1,16 +1,38 @@
 package com.example.booking.repository;
 
 import com.example.booking.model.Facility;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @Repository
 public interface FacilityRepository extends JpaRepository<Facility, Long> {
+    // Query cache holds the ids; the rows come from the facilities region.
+    // Any write to facilities invalidates both.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Facility> findByIsAvailableTrue();
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT f FROM Facility f WHERE f.capacity >= :minCapacity")
     List<Facility> findByMinCapacity(@Param("minCapacity") Integer minCapacity);
+    
+    // Smallest rooms that fit first; the anti-join stops as soon as enough are found
+    @Query("SELECT f FROM Facility f WHERE f.isAvailable = true AND f.capacity >= :minCapacity " +
+           "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.facility = f AND b.date = :date " +
+           "AND b.status IN ('CONFIRMED', 'PENDING') AND b.startTime < :endTime AND b.endTime > :startTime) " +
+           "ORDER BY f.capacity ASC, f.id ASC")
+    List<Facility> findFreeFacilities(
+            @Param("minCapacity") Integer minCapacity,
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime,
+            Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.example.booking.service;
+
+import com.example.booking.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests may be inside BookingService and AvailabilityService
+ * at once, so request threads queue here rather than on the connection pool.
+ *
+ * This matters most with spring.threads.virtual.enabled=true, where Tomcat no
+ * longer bounds concurrency and thousands of virtual threads could otherwise
+ * pile onto a 10-connection pool. Ordered ahead of the transaction advice so
+ * a waiting request never holds a connection. Nested calls on the same thread
+ * reuse the permit they already hold.
+ *
+ * Exports keep their connection for as long as the client takes to download
+ * them, so they draw on a separate, smaller set of permits and cannot starve
+ * ordinary requests. The two limits together stay within the pool.
+ */
+@Aspect
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "booking.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionLimiter {
+
+    private final Semaphore permits;
+    private final Semaphore exportPermits;
+    private final long waitMillis;
+    private final Timer waitTimer;
+    private final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+
+    public AdmissionLimiter(@Value("${booking.admission.max-concurrent:8}") int maxConcurrent,
+            @Value("${booking.admission.max-exports:2}") int maxExports,
+            @Value("${booking.admission.wait-millis:10000}") long waitMillis,
+            MeterRegistry registry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.exportPermits = new Semaphore(maxExports, true);
+        this.waitMillis = waitMillis;
+        this.waitTimer = Timer.builder("booking.admission.wait")
+                .description("Time spent waiting for a database admission permit")
+                .register(registry);
+        Gauge.builder("booking.admission.in_use", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Requests currently admitted to the database tier")
+                .register(registry);
+        Gauge.builder("booking.admission.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for an admission permit")
+                .register(registry);
+        Gauge.builder("booking.admission.exports_in_use", exportPermits, p -> maxExports - p.availablePermits())
+                .description("Exports currently streaming from the database")
+                .register(registry);
+    }
+
+    @Around("(execution(public * com.example.booking.service.BookingService.*(..))"
+            + " || execution(public * com.example.booking.service.AvailabilityService.*(..)))"
+            + " && !execution(* com.example.booking.service.BookingService.streamBookings(..))")
+    public Object admit(ProceedingJoinPoint call) throws Throwable {
+        return proceedWithPermit(permits, call);
+    }
+
+    @Around("execution(* com.example.booking.service.BookingService.streamBookings(..))")
+    public Object admitExport(ProceedingJoinPoint call) throws Throwable {
+        return proceedWithPermit(exportPermits, call);
+    }
+
+    private Object proceedWithPermit(Semaphore permits, ProceedingJoinPoint call) throws Throwable {
+        if (admitted.get() != null) {
+            return call.proceed();
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for admission", 1);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw new ServiceBusyException("No database capacity within " + waitMillis + " ms", 1);
+        }
+        admitted.set(Boolean.TRUE);
+        try {
+            return call.proceed();
+        } finally {
+            admitted.remove();
+            permits.release();
+        }
+    }
+}
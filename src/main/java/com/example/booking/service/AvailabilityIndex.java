@@ -0,0 +1,269 @@
+package com.example.booking.service;
+
+import com.example.booking.config.ReplicaRouting;
+import com.example.booking.model.Booking;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingRepository.BookingSlot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process occupancy index used for booking conflict checks.
+ *
+ * Each (facility, date) pair is held as a bitmap with one bit per minute of
+ * the day, so an overlap check is a handful of word operations instead of a
+ * query. Entries are loaded lazily from the repository on a miss and kept in
+ * sync by BookingService after each write commits. Entries also expire after
+ * a TTL so that writes made by other nodes are eventually picked up. Beyond
+ * max-entries, the least recently used facility-days are evicted one by one.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Key, DaySlots> days;
+
+    // Bumped on every write; a lazy load only caches its result if no write
+    // touched the same stripe while it was reading from the database.
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public AvailabilityIndex(BookingRepository bookingRepository,
+            @Value("${booking.availability-index.ttl-seconds:60}") long ttlSeconds,
+            @Value("${booking.availability-index.max-entries:10000}") int maxEntries) {
+        this.bookingRepository = bookingRepository;
+        this.days = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Returns true if an active booking on the facility overlaps [start, end),
+     * ignoring the booking with id {@code excludeId} when it is not null.
+     */
+    public boolean hasConflict(Long facilityId, LocalDate date, LocalTime start, LocalTime end, Long excludeId) {
+        if (!isMinuteAligned(start) || !isMinuteAligned(end)) {
+            // Sub-minute precision cannot be answered exactly from the bitmap
+            return ReplicaRouting.onPrimary(() -> bookingRepository.findActiveSlotsByFacilityAndDate(facilityId, date))
+                    .stream()
+                    .filter(s -> !s.getId().equals(excludeId))
+                    .anyMatch(s -> s.getStartTime().isBefore(end) && s.getEndTime().isAfter(start));
+        }
+        return slotsFor(facilityId, date).overlaps(toMinute(start), toMinute(end), excludeId);
+    }
+
+    /**
+     * Records a booking's current slot once the surrounding transaction commits.
+     * Bookings that no longer hold their slot are removed instead.
+     */
+    public void record(Booking booking) {
+        record(booking.getId(), booking.getFacility().getId(), booking.getDate(),
+                booking.getStartTime(), booking.getEndTime(), booking.getStatus().isActive());
+    }
+
+    /**
+     * Same as {@link #record(Booking)} for callers that hold the booking's
+     * columns rather than the entity.
+     */
+    public void record(Long id, Long facilityId, LocalDate date, LocalTime start, LocalTime end, boolean active) {
+        Key key = new Key(facilityId, date);
+        int from = floorMinute(start);
+        int to = ceilMinute(end);
+        afterCommit(() -> {
+            touch(key);
+            DaySlots slots = days.getIfPresent(key);
+            if (slots != null) {
+                if (active) {
+                    slots.add(id, from, to);
+                } else {
+                    slots.remove(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes a booking from the given facility-day once the surrounding
+     * transaction commits.
+     */
+    public void remove(Long bookingId, Long facilityId, LocalDate date) {
+        Key key = new Key(facilityId, date);
+        afterCommit(() -> {
+            touch(key);
+            DaySlots slots = days.getIfPresent(key);
+            if (slots != null) {
+                slots.remove(bookingId);
+            }
+        });
+    }
+
+    /**
+     * Drops every entry for a facility, e.g. after it has been deleted.
+     */
+    public void evictFacility(Long facilityId) {
+        afterCommit(() -> days.asMap().keySet().removeIf(k -> {
+            if (k.facilityId().equals(facilityId)) {
+                touch(k);
+                return true;
+            }
+            return false;
+        }));
+    }
+
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        days.invalidateAll();
+    }
+
+    private DaySlots slotsFor(Long facilityId, LocalDate date) {
+        Key key = new Key(facilityId, date);
+        DaySlots cached = days.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(key);
+        long stamp = stamps.get(stripe);
+        DaySlots loaded = new DaySlots();
+        // Always from the primary: a lagging replica must not be cached as truth
+        List<BookingSlot> active = ReplicaRouting.onPrimary(
+                () -> bookingRepository.findActiveSlotsByFacilityAndDate(facilityId, date));
+        for (BookingSlot slot : active) {
+            loaded.add(slot.getId(), floorMinute(slot.getStartTime()), ceilMinute(slot.getEndTime()));
+        }
+
+        if (stamps.get(stripe) == stamp) {
+            days.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void touch(Key key) {
+        stamps.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(Key key) {
+        return (key.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static boolean isMinuteAligned(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int floorMinute(LocalTime time) {
+        return toMinute(time);
+    }
+
+    private static int ceilMinute(LocalTime time) {
+        return isMinuteAligned(time) ? toMinute(time) : Math.min(toMinute(time) + 1, MINUTES_PER_DAY);
+    }
+
+    private record Key(Long facilityId, LocalDate date) {}
+
+    /**
+     * Occupancy of one facility on one day. Bit i of the bitmap is set when
+     * minute i (counted from midnight) is covered by an active booking.
+     */
+    static final class DaySlots {
+        private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+
+        private final long[] bits = new long[WORDS];
+        private final Map<Long, int[]> intervals = new HashMap<>();
+
+        synchronized void add(Long id, int from, int to) {
+            if (intervals.put(id, new int[] { from, to }) != null) {
+                rebuild();
+            } else {
+                set(from, to);
+            }
+        }
+
+        synchronized void remove(Long id) {
+            if (intervals.remove(id) != null) {
+                rebuild();
+            }
+        }
+
+        synchronized boolean overlaps(int from, int to, Long excludeId) {
+            if (from >= to || !anySet(from, to)) {
+                return false;
+            }
+            if (excludeId == null || !intervals.containsKey(excludeId)) {
+                return true;
+            }
+            for (Map.Entry<Long, int[]> e : intervals.entrySet()) {
+                int[] iv = e.getValue();
+                if (!e.getKey().equals(excludeId) && iv[0] < to && iv[1] > from) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void rebuild() {
+            Arrays.fill(bits, 0L);
+            for (int[] iv : intervals.values()) {
+                set(iv[0], iv[1]);
+            }
+        }
+
+        private void set(int from, int to) {
+            for (int w = from >>> 6; w <= (to - 1) >>> 6 && from < to; w++) {
+                bits[w] |= mask(w, from, to);
+            }
+        }
+
+        private boolean anySet(int from, int to) {
+            for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+                if ((bits[w] & mask(w, from, to)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Bits of word w that fall inside [from, to)
+        private static long mask(int w, int from, int to) {
+            int lo = Math.max(from - (w << 6), 0);
+            int hi = Math.min(to - (w << 6), 64);
+            long upper = hi == 64 ? -1L : (1L << hi) - 1;
+            return upper & (-1L << lo);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.booking.service;
+
+import com.example.booking.config.MetricsConfig;
+import com.example.booking.dto.AvailabilityGrid;
+import com.example.booking.dto.AvailabilityGrid.DayAvailability;
+import com.example.booking.dto.AvailabilityGrid.FacilityAvailability;
+import com.example.booking.dto.BookingRequest;
+import com.example.booking.dto.TimeRange;
+import com.example.booking.model.Facility;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingRepository.FacilitySlot;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk availability queries that answer for many facilities and days at once
+ * from a single range query over bookings.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final int OPEN_MINUTE = toMinute(BookingRequest.OPENING_TIME);
+    private static final int CLOSE_MINUTE = toMinute(BookingRequest.CLOSING_TIME);
+
+    private final BookingRepository bookingRepository;
+    private final FacilityService facilityService;
+    private final int maxDays;
+    private final long maxCells;
+
+    public AvailabilityService(BookingRepository bookingRepository,
+            FacilityService facilityService,
+            @Value("${booking.availability-grid.max-days:31}") int maxDays,
+            @Value("${booking.availability-grid.max-cells:200000}") long maxCells) {
+        this.bookingRepository = bookingRepository;
+        this.facilityService = facilityService;
+        this.maxDays = maxDays;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Builds the availability grid for the given facilities (all facilities
+     * when {@code facilityIds} is empty) between {@code from} and {@code to}
+     * inclusive. Rejects requests whose grid would exceed the size budget of
+     * facilities x days x slots.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "availability-grid" })
+    public AvailabilityGrid getAvailabilityGrid(LocalDate from, LocalDate to,
+            Set<Long> facilityIds, int slotMinutes) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        int openMinutes = CLOSE_MINUTE - OPEN_MINUTE;
+        if (slotMinutes < 5 || openMinutes % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot size must be at least 5 minutes and divide opening hours evenly");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Date range cannot exceed " + maxDays + " days");
+        }
+
+        List<Facility> facilities = resolveFacilities(facilityIds);
+        long cells = facilities.size() * days * (openMinutes / slotMinutes);
+        if (cells > maxCells) {
+            throw new IllegalArgumentException("Requested grid is too large; narrow the facilities, dates or slot size");
+        }
+        if (facilities.isEmpty()) {
+            return new AvailabilityGrid(from, to, slotMinutes, List.of());
+        }
+
+        // One query for the whole grid, grouped by facility and day in memory
+        List<FacilitySlot> slots = facilityIds == null || facilityIds.isEmpty()
+                ? bookingRepository.findActiveSlotsByDateRange(from, to)
+                : bookingRepository.findActiveSlotsByFacilitiesAndDateRange(facilityIds, from, to);
+        Map<Long, Map<LocalDate, List<int[]>>> busyByFacility = new HashMap<>();
+        for (FacilitySlot slot : slots) {
+            busyByFacility.computeIfAbsent(slot.getFacilityId(), k -> new HashMap<>())
+                    .computeIfAbsent(slot.getDate(), k -> new ArrayList<>())
+                    .add(new int[] { toMinute(slot.getStartTime()), ceilMinute(slot.getEndTime()) });
+        }
+
+        List<FacilityAvailability> result = new ArrayList<>(facilities.size());
+        for (Facility facility : facilities) {
+            boolean available = Boolean.TRUE.equals(facility.getIsAvailable());
+            Map<LocalDate, List<int[]>> busyByDay = busyByFacility.getOrDefault(facility.getId(), Map.of());
+            List<DayAvailability> dayList = new ArrayList<>((int) days);
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                List<int[]> busy = merge(busyByDay.getOrDefault(date, List.of()));
+                List<int[]> free = available ? freeSlots(busy, slotMinutes) : List.of();
+                dayList.add(new DayAvailability(date, toRanges(busy), toRanges(free)));
+            }
+            result.add(new FacilityAvailability(facility.getId(), facility.getName(), available, dayList));
+        }
+        return new AvailabilityGrid(from, to, slotMinutes, result);
+    }
+
+    private List<Facility> resolveFacilities(Collection<Long> facilityIds) {
+        List<Facility> all = facilityService.getAllFacilities();
+        if (facilityIds == null || facilityIds.isEmpty()) {
+            return all.stream().sorted(Comparator.comparing(Facility::getId)).toList();
+        }
+        Map<Long, Facility> byId = all.stream().collect(Collectors.toMap(Facility::getId, f -> f));
+        List<Facility> selected = new ArrayList<>(facilityIds.size());
+        for (Long id : facilityIds.stream().sorted().toList()) {
+            Facility facility = byId.get(id);
+            if (facility == null) {
+                throw new EntityNotFoundException("Facility not found with id: " + id);
+            }
+            selected.add(facility);
+        }
+        return selected;
+    }
+
+    // Sorts and merges overlapping or touching intervals, clipped to operating hours
+    static List<int[]> merge(List<int[]> intervals) {
+        List<int[]> sorted = intervals.stream()
+                .map(iv -> new int[] { Math.max(iv[0], OPEN_MINUTE), Math.min(iv[1], CLOSE_MINUTE) })
+                .filter(iv -> iv[0] < iv[1])
+                .sorted(Comparator.comparingInt(iv -> iv[0]))
+                .toList();
+        List<int[]> merged = new ArrayList<>();
+        for (int[] iv : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && iv[0] <= last[1]) {
+                last[1] = Math.max(last[1], iv[1]);
+            } else {
+                merged.add(iv);
+            }
+        }
+        return merged;
+    }
+
+    // Gaps between busy intervals, shrunk to whole slots on the slot grid
+    static List<int[]> freeSlots(List<int[]> busy, int slotMinutes) {
+        List<int[]> free = new ArrayList<>();
+        int cursor = OPEN_MINUTE;
+        for (int[] iv : busy) {
+            addAligned(free, cursor, iv[0], slotMinutes);
+            cursor = Math.max(cursor, iv[1]);
+        }
+        addAligned(free, cursor, CLOSE_MINUTE, slotMinutes);
+        return free;
+    }
+
+    private static void addAligned(List<int[]> free, int from, int to, int slotMinutes) {
+        int start = OPEN_MINUTE + ceilDiv(from - OPEN_MINUTE, slotMinutes) * slotMinutes;
+        int end = OPEN_MINUTE + ((to - OPEN_MINUTE) / slotMinutes) * slotMinutes;
+        if (start < end) {
+            free.add(new int[] { start, end });
+        }
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private static List<TimeRange> toRanges(List<int[]> intervals) {
+        return intervals.stream()
+                .map(iv -> new TimeRange(toTime(iv[0]), toTime(iv[1])))
+                .toList();
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int ceilMinute(LocalTime time) {
+        return toMinute(time) + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+    }
+
+    private static LocalTime toTime(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingChangeEvent;
+import com.example.booking.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-sent feed of committed booking changes.
+ *
+ * Events are numbered in commit order and kept in a bounded replay buffer.
+ * The SSE event id is the resume token ({@code <epoch>-<sequence>}); a client
+ * that reconnects with Last-Event-ID receives everything it missed, or a
+ * {@code reset} event telling it to reload when the token is from an earlier
+ * process or has fallen out of the buffer.
+ *
+ * Publishing only appends to each subscriber's bounded queue; every
+ * subscriber is drained by its own sender task, so a slow client never holds
+ * up the request that made the change or the other clients. A client whose
+ * queue fills up, or whose current send has been blocked for longer than
+ * send-timeout-millis, is dropped: it gets a {@code reset} if it can still
+ * take one and then reconnects and reloads.
+ *
+ * The feed only sees changes made by this node.
+ */
+@Component
+public class BookingChangeFeed {
+
+    static final String CHANGE_EVENT = "booking";
+    static final String RESET_EVENT = "reset";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    // Guarded by the feed's monitor
+    private final Deque<Entry> buffer = new ArrayDeque<>();
+    private long sequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // At most one task per subscriber, and none queued: a full pool drops the subscriber
+    private final ThreadPoolExecutor senders;
+    private final Counter dropped;
+
+    public BookingChangeFeed(@Value("${booking.events.buffer-size:1000}") int bufferSize,
+            @Value("${booking.events.max-subscribers:1000}") int maxSubscribers,
+            @Value("${booking.events.subscriber-queue-size:256}") int queueSize,
+            @Value("${booking.events.timeout-millis:1800000}") long timeoutMillis,
+            @Value("${booking.events.send-timeout-millis:10000}") long sendTimeoutMillis,
+            MeterRegistry registry) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.senders = new ThreadPoolExecutor(0, maxSubscribers, 30, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "booking-change-feed");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("booking.events.subscribers", subscribers, List::size)
+                .description("Open booking change feed connections")
+                .register(registry);
+        this.dropped = Counter.builder("booking.events.dropped")
+                .description("Booking change feed clients dropped for falling behind")
+                .register(registry);
+    }
+
+    /**
+     * Publishes the event once the surrounding transaction commits; nothing is
+     * sent for a rollback.
+     */
+    public void publish(BookingChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    /**
+     * Opens a feed for the given facilities (all facilities when empty),
+     * replaying anything after {@code lastEventId} first.
+     */
+    public SseEmitter subscribe(Collection<Long> facilityIds, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Too many open booking feeds", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter,
+                facilityIds == null ? Set.of() : Set.copyOf(facilityIds));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            // Completing here ends the response cleanly; the client reconnects
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // Replay and registration happen under the feed's monitor, so no
+        // event can slip in between them
+        synchronized (this) {
+            if (replay(subscriber, lastEventId)) {
+                subscribers.add(subscriber);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Keeps idle connections open through proxies, detects dead clients and
+     * drops clients stuck in a send for longer than send-timeout-millis.
+     */
+    @Scheduled(fixedDelayString = "${booking.events.heartbeat-millis:25000}")
+    public synchronized void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                drop(subscriber, false);
+            } else {
+                offer(subscriber, SseEmitter.event().comment("keep-alive"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(s -> s.emitter().complete());
+        subscribers.clear();
+    }
+
+    private synchronized void dispatch(BookingChangeEvent event) {
+        Entry entry = append(event);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(event)) {
+                offer(subscriber, toSse(entry));
+            }
+        }
+    }
+
+    private Entry append(BookingChangeEvent event) {
+        Entry entry = new Entry(++sequence, event);
+        buffer.addLast(entry);
+        if (buffer.size() > bufferSize) {
+            buffer.removeFirst();
+        }
+        return entry;
+    }
+
+    private boolean replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return offer(subscriber, SseEmitter.event().comment("subscribed"));
+        }
+        long after = parseSequence(lastEventId);
+        long oldest = buffer.isEmpty() ? sequence + 1 : buffer.peekFirst().sequence();
+        // Resumable only when every event after the token is still buffered
+        if (after < 0 || after > sequence || after < oldest - 1) {
+            return reset(subscriber);
+        }
+        for (Entry entry : buffer) {
+            if (entry.sequence() > after && subscriber.wants(entry.event())
+                    && !offer(subscriber, toSse(entry))) {
+                // More missed events than the queue holds; start over instead
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean reset(Subscriber subscriber) {
+        return offer(subscriber, SseEmitter.event().id(token(sequence)).name(RESET_EVENT).data("reload"));
+    }
+
+    private long parseSequence(String token) {
+        int dash = token.lastIndexOf('-');
+        if (dash < 0 || !token.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(token.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String token(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Entry entry) {
+        return SseEmitter.event()
+                .id(token(entry.sequence()))
+                .name(CHANGE_EVENT)
+                .data(entry.event(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queues an event for the subscriber and starts its sender if idle.
+     * Returns false, and drops the subscriber, when its queue is full.
+     */
+    private boolean offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        boolean full;
+        boolean start = false;
+        synchronized (subscriber) {
+            if (subscriber.closing) {
+                return false;
+            }
+            full = subscriber.pending.size() >= queueSize;
+            if (!full) {
+                subscriber.pending.addLast(event);
+                start = !subscriber.draining;
+                subscriber.draining = true;
+            }
+        }
+        if (full) {
+            drop(subscriber, true);
+            return false;
+        }
+        return !start || startSender(subscriber);
+    }
+
+    private boolean startSender(Subscriber subscriber) {
+        try {
+            senders.execute(() -> drain(subscriber));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Every sender is busy; nothing is in flight for this one, so end it here
+            subscribers.remove(subscriber);
+            synchronized (subscriber) {
+                subscriber.closing = true;
+                subscriber.draining = false;
+                subscriber.pending.clear();
+            }
+            dropped.increment();
+            subscriber.emitter().complete();
+            return false;
+        }
+    }
+
+    /**
+     * Stops delivering to a lagging subscriber. Its backlog is discarded and,
+     * when {@code notify} is set, replaced by a reset; the emitter is
+     * completed once whatever send is in flight returns. Called under the
+     * feed's monitor.
+     */
+    private void drop(Subscriber subscriber, boolean notify) {
+        subscribers.remove(subscriber);
+        boolean start;
+        synchronized (subscriber) {
+            if (subscriber.closing) {
+                return;
+            }
+            subscriber.pending.clear();
+            if (notify) {
+                subscriber.pending.addLast(SseEmitter.event().id(token(sequence)).name(RESET_EVENT).data("reload"));
+            }
+            subscriber.closing = true;
+            start = !subscriber.draining;
+            subscriber.draining = true;
+        }
+        dropped.increment();
+        if (start) {
+            startSender(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder next;
+            synchronized (subscriber) {
+                next = subscriber.pending.pollFirst();
+                if (next == null) {
+                    subscriber.draining = false;
+                    if (!subscriber.closing) {
+                        return;
+                    }
+                }
+            }
+            if (next == null) {
+                subscriber.emitter().complete();
+                return;
+            }
+            subscriber.sendingSince = System.nanoTime();
+            boolean sent = send(subscriber, next);
+            subscriber.sendingSince = 0;
+            if (!sent) {
+                return;
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a
+            // half-closed connection, so drop it here as well
+            subscribers.remove(subscriber);
+            synchronized (subscriber) {
+                subscriber.closing = true;
+                subscriber.draining = false;
+                subscriber.pending.clear();
+            }
+            subscriber.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    private record Entry(long sequence, BookingChangeEvent event) {}
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> facilityIds;
+        // Guarded by the subscriber's monitor
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closing;
+        // System.nanoTime() when the send in flight started, 0 when idle
+        private volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, Set<Long> facilityIds) {
+            this.emitter = emitter;
+            this.facilityIds = facilityIds;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        boolean wants(BookingChangeEvent event) {
+            return facilityIds.isEmpty() || facilityIds.contains(event.facilityId())
+                    || (event.previousFacilityId() != null && facilityIds.contains(event.previousFacilityId()));
+        }
+    }
+}
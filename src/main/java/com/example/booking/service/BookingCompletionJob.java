@@ -0,0 +1,94 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingChangeEvent;
+import com.example.booking.model.BookingStatus;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingRepository.WrittenBooking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks CONFIRMED bookings that have ended as COMPLETED.
+ *
+ * Walks the date range from the oldest CONFIRMED booking up to now in bulk
+ * UPDATEs of at most chunk-size rows, oldest first. Each chunk is its own
+ * short transaction and skips rows other transactions hold, so it never
+ * waits on user traffic. Progress is the data itself: a crashed or stopped
+ * run leaves finished chunks committed and the next run continues with what
+ * is still CONFIRMED. Runs on several nodes at once are safe for the same
+ * reason.
+ *
+ * Each completed booking is published to the live feed as an UPDATED event
+ * once its chunk commits; a large catch-up chunk can overflow slow
+ * subscribers, which then get a reset. Delta-sync clients see the rows
+ * through the change_version trigger, and the facility version triggers move
+ * the ETags in {@link CollectionVersions}.
+ */
+@Component
+public class BookingCompletionJob {
+
+    private final BookingRepository bookingRepository;
+    private final BookingChangeFeed changeFeed;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Counter completed;
+    private final Timer chunkTimer;
+    private final AtomicLong backlogDays = new AtomicLong();
+
+    public BookingCompletionJob(BookingRepository bookingRepository,
+            BookingChangeFeed changeFeed,
+            MeterRegistry registry,
+            @Value("${booking.completion.chunk-size:1000}") int chunkSize,
+            @Value("${booking.completion.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.bookingRepository = bookingRepository;
+        this.changeFeed = changeFeed;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.completed = Counter.builder("booking.completion.completed")
+                .description("Bookings marked COMPLETED by the completion job")
+                .register(registry);
+        this.chunkTimer = Timer.builder("booking.completion.chunk")
+                .description("Time per bulk completion chunk")
+                .register(registry);
+        Gauge.builder("booking.completion.backlog.days", backlogDays, AtomicLong::get)
+                .description("Age in days of the oldest CONFIRMED booking before today")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.completion.interval-millis:300000}",
+            initialDelayString = "${booking.completion.initial-delay-millis:60000}")
+    public void completeEndedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate from = bookingRepository.findFirstConfirmedDate(LocalDate.EPOCH, today);
+        try {
+            for (int chunks = 0; from != null && chunks < maxChunksPerRun; chunks++) {
+                List<WrittenBooking> chunk = chunkTimer.record(
+                        () -> bookingRepository.completeEndedBookings(from, now, chunkSize));
+                completed.increment(chunk.size());
+                for (WrittenBooking row : chunk) {
+                    changeFeed.publish(new BookingChangeEvent(BookingChangeEvent.Type.UPDATED, row.getId(),
+                            row.getFacilityId(), row.getUserId(), row.getDate(), row.getStartTime(),
+                            row.getEndTime(), BookingStatus.COMPLETED, row.getPurpose(), null));
+                }
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            LocalDate oldest = bookingRepository.findFirstConfirmedDate(LocalDate.EPOCH, today.minusDays(1));
+            backlogDays.set(oldest == null ? 0 : ChronoUnit.DAYS.between(oldest, today));
+        }
+    }
+}
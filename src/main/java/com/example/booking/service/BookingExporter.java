@@ -0,0 +1,143 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingFilter;
+import com.example.booking.dto.BookingResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes booking exports straight to an output stream as rows arrive from the
+ * database, so memory use stays flat no matter how many rows are exported.
+ */
+@Component
+public class BookingExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private static final String CSV_HEADER =
+            "id,userId,userName,facilityId,facilityName,date,startTime,endTime,status,purpose,createdAt";
+
+    private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+
+    public BookingExporter(BookingService bookingService, ObjectMapper objectMapper) {
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(BookingFilter filter, Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                writeCsv(filter, out);
+            } else {
+                writeNdjson(filter, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(BookingFilter filter, OutputStream out) throws IOException {
+        // Let the servlet buffer decide when to flush rather than flushing every row
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // The servlet container owns the response stream, so Jackson must not close it
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // Rows are newline-terminated below instead of space-separated
+            generator.setRootValueSeparator(null);
+            bookingService.streamBookings(filter, row -> {
+                try {
+                    rowWriter.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(BookingFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        bookingService.streamBookings(filter, row -> {
+            try {
+                writeCsvRow(writer, row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, BookingResponse row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getUserId()));
+        writer.write(',');
+        writer.write(csv(row.getUserName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getFacilityId()));
+        writer.write(',');
+        writer.write(csv(row.getFacilityName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getDate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getStartTime()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getEndTime()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getStatus()));
+        writer.write(',');
+        writer.write(csv(row.getPurpose()));
+        writer.write(',');
+        writer.write(row.getCreatedAt() == null ? "" : row.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting; also neutralises leading formula characters for spreadsheets
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        String safe = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') < 0 && safe.indexOf('"') < 0 && safe.indexOf('\n') < 0 && safe.indexOf('\r') < 0) {
+            return safe;
+        }
+        return '"' + safe.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.booking.service;
+
+import com.example.booking.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-JVM locks keyed by facility and date.
+ *
+ * Requests for the same facility-day on this node queue here instead of racing
+ * each other into the database. Locks are taken before the write's
+ * transaction starts and released after it has committed, so a waiter holds
+ * no pooled connection and always sees the previous commit. The exclusion
+ * constraint on the bookings table remains the real guarantee; a request
+ * that cannot get its locks in time is turned away as busy rather than let
+ * through unserialized.
+ */
+@Component
+public class BookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long waitMillis;
+
+    public BookingLocks(@Value("${booking.locks.stripes:256}") int stripeCount,
+            @Value("${booking.locks.wait-millis:5000}") long waitMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Runs {@code write} holding the stripe for (facilityId, date).
+     */
+    public <T> T withLock(Long facilityId, LocalDate date, Supplier<T> write) {
+        return withLocks(List.of(new Key(facilityId, date)), write);
+    }
+
+    /**
+     * Runs {@code write} holding every stripe covering the given facility-days.
+     * Stripes are taken in index order so that two overlapping batches cannot
+     * deadlock. Must be called outside a transaction, so that {@code write}
+     * commits before the locks are released.
+     *
+     * @throws ServiceBusyException if the locks are not free within wait-millis
+     */
+    public <T> T withLocks(Collection<Key> keys, Supplier<T> write) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Booking locks must be taken before the transaction starts");
+        }
+        int[] indexes = keys.stream()
+                .mapToInt(k -> stripeIndex(k.facilityId(), k.date()))
+                .distinct()
+                .sorted()
+                .toArray();
+        List<ReentrantLock> held = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!tryLock(lock)) {
+                    throw new ServiceBusyException("Booking slot is busy; not locked within " + waitMillis + " ms", 1);
+                }
+                held.add(lock);
+            }
+            return write.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for a booking slot lock", 1);
+        }
+    }
+
+    private int stripeIndex(Long facilityId, LocalDate date) {
+        int hash = Objects.hash(facilityId, date);
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % stripes.length;
+    }
+
+    public record Key(Long facilityId, LocalDate date) {}
+}
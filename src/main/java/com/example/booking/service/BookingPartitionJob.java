@@ -0,0 +1,41 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly partitions of the bookings table created ahead of the
+ * calendar and moves months past the archive horizon into bookings_archive.
+ * Runs at startup and then daily; both steps are idempotent.
+ */
+@Component
+public class BookingPartitionJob {
+
+    private final BookingRepository bookingRepository;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    public BookingPartitionJob(BookingRepository bookingRepository,
+            @Value("${booking.partitions.months-ahead:12}") int monthsAhead,
+            @Value("${booking.partitions.archive-after-months:24}") int archiveAfterMonths) {
+        this.bookingRepository = bookingRepository;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${booking.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        bookingRepository.ensurePartitions(monthsAhead);
+        if (archiveAfterMonths > 0) {
+            LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths);
+            bookingRepository.archivePartitionsBefore(cutoff);
+        }
+    }
+}
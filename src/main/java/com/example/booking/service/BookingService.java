@@ -1,72 +1,224 @@
 package com.example.booking.service;
 
+import com.example.booking.config.MetricsConfig;
+import com.example.booking.dto.BookingBatchItemResult;
+import com.example.booking.dto.BookingBatchItemResult.Outcome;
+import com.example.booking.dto.BookingBatchResponse;
+import com.example.booking.dto.BookingChangeEvent;
+import com.example.booking.dto.BookingChanges;
+import com.example.booking.dto.BookingCursor;
+import com.example.booking.dto.BookingFilter;
+import com.example.booking.dto.BookingPage;
 import com.example.booking.dto.BookingRequest;
 import com.example.booking.dto.BookingResponse;
+import com.example.booking.dto.BookingSeriesRequest;
+import com.example.booking.dto.BookingSeriesResponse;
+import com.example.booking.dto.BookingSeriesUpdateRequest;
+import com.example.booking.dto.ChangeToken;
 import com.example.booking.exception.BookingConflictException;
 import com.example.booking.model.Booking;
+import com.example.booking.model.BookingSeries;
 import com.example.booking.model.BookingStatus;
 import com.example.booking.model.Facility;
+import com.example.booking.model.SeriesFrequency;
 import com.example.booking.model.User;
 import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingRepository.ChangeRow;
+import com.example.booking.repository.BookingRepository.FacilitySlot;
+import com.example.booking.repository.BookingRepository.InsertedBooking;
+import com.example.booking.repository.BookingRepository.WrittenBooking;
+import com.example.booking.repository.BookingSeriesRepository;
 import com.example.booking.repository.FacilityRepository;
 import com.example.booking.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final FacilityRepository facilityRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final FacilityService facilityService;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingChangeFeed changeFeed;
+    private final Validator validator;
+    private final long tombstoneRetentionMillis;
+    private final int maxSeriesOccurrences;
+    private final boolean singleStatementCreate;
 
     public BookingService(BookingRepository bookingRepository,
             UserRepository userRepository,
-            FacilityRepository facilityRepository) {
+            FacilityRepository facilityRepository,
+            BookingSeriesRepository bookingSeriesRepository,
+            FacilityService facilityService,
+            AvailabilityIndex availabilityIndex,
+            BookingChangeFeed changeFeed,
+            Validator validator,
+            @Value("${booking.changes.tombstone-retention-days:7}") long tombstoneRetentionDays,
+            @Value("${booking.series.max-occurrences:200}") int maxSeriesOccurrences,
+            @Value("${booking.create.single-statement:true}") boolean singleStatementCreate) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.facilityRepository = facilityRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.facilityService = facilityService;
+        this.availabilityIndex = availabilityIndex;
+        this.changeFeed = changeFeed;
+        this.validator = validator;
+        this.tombstoneRetentionMillis = tombstoneRetentionDays * 24 * 60 * 60 * 1000;
+        this.maxSeriesOccurrences = maxSeriesOccurrences;
+        this.singleStatementCreate = singleStatementCreate;
     }
 
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "list" })
     public List<BookingResponse> getAllBookings() {
-        return bookingRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return bookingRepository.findAllResponses();
+    }
+
+    /**
+     * Returns one page of bookings in (date, startTime, id) order. Pass the
+     * previous page's nextCursor to continue; a null cursor starts at the top.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "list" })
+    public BookingPage getBookingPage(BookingFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BookingCursor after = cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists
+        List<BookingResponse> rows = bookingRepository.findResponsePage(filter, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new BookingPage(rows, null);
+        }
+        List<BookingResponse> items = rows.subList(0, limit);
+        return new BookingPage(new ArrayList<>(items), BookingCursor.after(items.get(limit - 1)).encode());
     }
 
+    /**
+     * Returns bookings changed after the given token, oldest change first.
+     * A change may be reported twice across calls, so clients should apply
+     * them idempotently. Without a token, or with one older than the
+     * tombstone retention window, returns an empty reset response carrying
+     * a fresh token.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "changes" })
+    public BookingChanges getChangesSince(String token, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long now = System.currentTimeMillis();
+        ChangeToken since = token == null || token.isBlank() ? null : ChangeToken.decode(token);
+        if (since == null || now - since.issuedAt() > tombstoneRetentionMillis) {
+            ChangeToken fresh = ChangeToken.from(bookingRepository.currentChangeFloor(), now);
+            return new BookingChanges(List.of(), List.of(), fresh.encode(), false, true);
+        }
+
+        // Take the next floor before reading, so anything still in flight
+        // now is read again on the next pass
+        long passFloor = since.midPass() ? since.passFloor() : bookingRepository.currentChangeFloor();
+        long passStarted = since.midPass() ? since.issuedAt() : now;
+
+        List<ChangeRow> rows = bookingRepository.findChangesAfter(since.afterVersion(), since.afterId(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (ChangeRow row : rows) {
+            ("D".equals(row.getKind()) ? deleted : changedIds).add(row.getId());
+        }
+        List<BookingResponse> changed = List.of();
+        if (!changedIds.isEmpty()) {
+            Map<Long, BookingResponse> byId = bookingRepository.findResponsesByIdIn(changedIds).stream()
+                    .collect(Collectors.toMap(BookingResponse::getId, r -> r));
+            // Keep change order; rows deleted since the scan show up as tombstones next time
+            changed = changedIds.stream().map(byId::get).filter(r -> r != null).toList();
+        }
+
+        ChangeToken next;
+        if (hasMore) {
+            ChangeRow last = rows.get(rows.size() - 1);
+            next = new ChangeToken(last.getVersion(), last.getId(), passFloor, passStarted);
+        } else {
+            next = ChangeToken.from(passFloor, passStarted);
+        }
+        return new BookingChanges(changed, deleted, next.encode(), hasMore, false);
+    }
+
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "get" })
     public BookingResponse getBookingById(Long id) {
-        Booking booking = bookingRepository.findById(id)
+        return bookingRepository.findResponseById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Booking not found with id: " + id));
-        return convertToResponse(booking);
+    }
+
+    /**
+     * Feeds every booking matching the filter to {@code sink} one row at a time,
+     * holding a database cursor open for the duration.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "export" })
+    public void streamBookings(BookingFilter filter, Consumer<BookingResponse> sink) {
+        try (Stream<BookingResponse> rows = bookingRepository.streamResponses(filter, EXPORT_FETCH_SIZE)) {
+            rows.forEach(sink);
+        }
     }
 
     @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "create" })
     public BookingResponse createBooking(BookingRequest request) {
+        if (singleStatementCreate) {
+            return insertBooking(request);
+        }
+
         // Validate user exists
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + request.getUserId()));
 
-        // Validate facility exists and is available
-        Facility facility = facilityRepository.findById(request.getFacilityId())
-                .orElseThrow(
-                        () -> new EntityNotFoundException("Facility not found with id: " + request.getFacilityId()));
+        // Validate facility exists and is available (served from the facility cache)
+        Facility facility = facilityService.getFacilityById(request.getFacilityId());
 
         if (!facility.getIsAvailable()) {
             throw new IllegalStateException("Facility is not available for booking");
         }
 
         // Check for conflicting bookings
-        boolean hasConflict = bookingRepository.existsConflictingBooking(
+        boolean hasConflict = availabilityIndex.hasConflict(
                 request.getFacilityId(),
                 request.getDate(),
                 request.getStartTime(),
-                request.getEndTime());
+                request.getEndTime(),
+                null);
 
         if (hasConflict) {
             throw new BookingConflictException(
@@ -83,47 +235,328 @@ public class BookingService {
         booking.setPurpose(request.getPurpose());
         booking.setStatus(BookingStatus.CONFIRMED);
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking = saveChecked(booking);
+        availabilityIndex.record(savedBooking);
+        changeFeed.publish(BookingChangeEvent.of(BookingChangeEvent.Type.CREATED, savedBooking));
         return convertToResponse(savedBooking);
     }
 
+    /**
+     * createBooking in one round trip: the checks and the insert are a single
+     * statement (see BookingRepository#insertIfFree). Only when it writes
+     * nothing are the user and facility looked up, normally from the
+     * second-level cache, to report which check failed.
+     */
+    private BookingResponse insertBooking(BookingRequest request) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        InsertedBooking row = conflictChecked(() -> bookingRepository.insertIfFree(request.getUserId(),
+                        request.getFacilityId(), request.getDate(), request.getStartTime(), request.getEndTime(),
+                        request.getPurpose(), createdAt))
+                .orElseThrow(() -> insertRejected(request));
+
+        availabilityIndex.record(row.getId(), row.getFacilityId(), row.getDate(), row.getStartTime(),
+                row.getEndTime(), true);
+        changeFeed.publish(new BookingChangeEvent(BookingChangeEvent.Type.CREATED, row.getId(),
+                row.getFacilityId(), row.getUserId(), row.getDate(), row.getStartTime(), row.getEndTime(),
+                row.getStatus(), row.getPurpose(), null));
+        return new BookingResponse(row.getId(), row.getUserId(), row.getUserName(), row.getFacilityId(),
+                row.getFacilityName(), row.getDate(), row.getStartTime(), row.getEndTime(), row.getStatus(),
+                row.getPurpose(), null, row.getCreatedAt());
+    }
+
+    // Same checks, order and messages as the multi-statement path
+    private RuntimeException insertRejected(BookingRequest request) {
+        if (userRepository.findById(request.getUserId()).isEmpty()) {
+            return new EntityNotFoundException("User not found with id: " + request.getUserId());
+        }
+        Facility facility = facilityRepository.findById(request.getFacilityId()).orElse(null);
+        if (facility == null) {
+            return new EntityNotFoundException("Facility not found with id: " + request.getFacilityId());
+        }
+        if (!Boolean.TRUE.equals(facility.getIsAvailable())) {
+            return new IllegalStateException("Facility is not available for booking");
+        }
+        return new BookingConflictException("Facility is already booked during the requested time slot");
+    }
+
+    /**
+     * Creates many bookings in one transaction. Each item is validated and
+     * conflict-checked on its own (against existing bookings and against
+     * earlier items in the same batch) and gets its own result; items that
+     * pass are inserted together in JDBC batches.
+     */
+    @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "create-batch" })
+    public BookingBatchResponse createBookings(List<BookingRequest> requests) {
+        BookingBatchItemResult[] results = new BookingBatchItemResult[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+
+        // Validate every item up front
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = new BookingBatchItemResult(i, Outcome.INVALID, "Booking is required");
+                continue;
+            }
+            Set<ConstraintViolation<BookingRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                BookingBatchItemResult result = new BookingBatchItemResult(i, Outcome.INVALID,
+                        "Some fields are missing or invalid. Please review your input.");
+                result.setDetails(violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                results[i] = result;
+                continue;
+            }
+            candidates.add(i);
+        }
+
+        // Resolve users and facilities with one query each
+        Map<Long, User> users = userRepository.findAllById(candidates.stream()
+                .map(i -> requests.get(i).getUserId()).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(User::getId, u -> u));
+        Map<Long, Facility> facilities = facilityRepository.findAllById(candidates.stream()
+                .map(i -> requests.get(i).getFacilityId()).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Facility::getId, f -> f));
+
+        List<Integer> bookable = new ArrayList<>();
+        for (int i : candidates) {
+            BookingRequest request = requests.get(i);
+            Facility facility = facilities.get(request.getFacilityId());
+            if (!users.containsKey(request.getUserId())) {
+                results[i] = new BookingBatchItemResult(i, Outcome.NOT_FOUND,
+                        "User not found with id: " + request.getUserId());
+            } else if (facility == null) {
+                results[i] = new BookingBatchItemResult(i, Outcome.NOT_FOUND,
+                        "Facility not found with id: " + request.getFacilityId());
+            } else if (!facility.getIsAvailable()) {
+                results[i] = new BookingBatchItemResult(i, Outcome.UNAVAILABLE,
+                        "Facility is not available for booking");
+            } else {
+                bookable.add(i);
+            }
+        }
+
+        List<Booking> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        if (!bookable.isEmpty()) {
+            Set<BookingLocks.Key> keys = bookable.stream()
+                    .map(i -> new BookingLocks.Key(requests.get(i).getFacilityId(), requests.get(i).getDate()))
+                    .collect(Collectors.toSet());
+
+            // One query for every facility-day touched by the batch
+            Set<Long> facilityIds = keys.stream().map(BookingLocks.Key::facilityId).collect(Collectors.toSet());
+            LocalDate from = keys.stream().map(BookingLocks.Key::date).min(LocalDate::compareTo).orElseThrow();
+            LocalDate to = keys.stream().map(BookingLocks.Key::date).max(LocalDate::compareTo).orElseThrow();
+            Map<BookingLocks.Key, List<LocalTime[]>> taken = new HashMap<>();
+            for (FacilitySlot slot : bookingRepository.findActiveSlotsByFacilitiesAndDateRange(facilityIds, from, to)) {
+                taken.computeIfAbsent(new BookingLocks.Key(slot.getFacilityId(), slot.getDate()), k -> new ArrayList<>())
+                        .add(new LocalTime[] { slot.getStartTime(), slot.getEndTime() });
+            }
+
+            // Earlier items win over later ones that overlap them
+            for (int i : bookable) {
+                BookingRequest request = requests.get(i);
+                List<LocalTime[]> day = taken.computeIfAbsent(
+                        new BookingLocks.Key(request.getFacilityId(), request.getDate()), k -> new ArrayList<>());
+                boolean hasConflict = day.stream().anyMatch(t -> timeOverlap(t[0], t[1],
+                        request.getStartTime(), request.getEndTime()));
+                if (hasConflict) {
+                    results[i] = new BookingBatchItemResult(i, Outcome.CONFLICT,
+                            "Facility is already booked during the requested time slot");
+                    continue;
+                }
+                day.add(new LocalTime[] { request.getStartTime(), request.getEndTime() });
+
+                Booking booking = new Booking(users.get(request.getUserId()),
+                        facilities.get(request.getFacilityId()), request.getDate(),
+                        request.getStartTime(), request.getEndTime(), request.getPurpose());
+                booking.setStatus(BookingStatus.CONFIRMED);
+                toSave.add(booking);
+                savedIndexes.add(i);
+            }
+        }
+
+        if (!toSave.isEmpty()) {
+            List<Booking> saved = saveAllChecked(toSave);
+            for (int n = 0; n < saved.size(); n++) {
+                Booking booking = saved.get(n);
+                availabilityIndex.record(booking);
+                changeFeed.publish(BookingChangeEvent.of(BookingChangeEvent.Type.CREATED, booking));
+                results[savedIndexes.get(n)] = BookingBatchItemResult.created(savedIndexes.get(n),
+                        convertToResponse(booking));
+            }
+        }
+
+        return new BookingBatchResponse(Arrays.asList(results));
+    }
+
+    /**
+     * Creates a recurring series and all of its bookings. Every occurrence is
+     * checked against existing bookings in one query and, if none clashes,
+     * all are inserted in JDBC batches. A single clash rejects the whole
+     * series with the conflicting dates in the error.
+     */
+    @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "create-series" })
+    public BookingSeriesResponse createSeries(BookingSeriesRequest request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + request.getUserId()));
+
+        Facility facility = facilityService.getFacilityById(request.getFacilityId());
+
+        if (!facility.getIsAvailable()) {
+            throw new IllegalStateException("Facility is not available for booking");
+        }
+
+        List<LocalDate> days = seriesDays(request);
+        checkSeriesConflicts(facility.getId(), days, request.getStartTime(), request.getEndTime(), null);
+
+        BookingSeries series = new BookingSeries();
+        series.setUser(user);
+        series.setFacility(facility);
+        series.setFrequency(request.getFrequency());
+        series.setStartDate(request.getStartDate());
+        series.setEndDate(request.getEndDate());
+        series.setOccurrences(request.getOccurrences());
+        series.setStartTime(request.getStartTime());
+        series.setEndTime(request.getEndTime());
+        series.setPurpose(request.getPurpose());
+        series = bookingSeriesRepository.save(series);
+
+        List<Booking> bookings = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            Booking booking = new Booking(user, facility, day,
+                    request.getStartTime(), request.getEndTime(), request.getPurpose());
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setSeriesId(series.getId());
+            bookings.add(booking);
+        }
+
+        List<Booking> saved = saveAllChecked(bookings);
+        for (Booking booking : saved) {
+            availabilityIndex.record(booking);
+            changeFeed.publish(BookingChangeEvent.of(BookingChangeEvent.Type.CREATED, booking));
+        }
+        return convertToResponse(series, saved.stream().map(BookingService::convertToResponse).toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "get-series" })
+    public BookingSeriesResponse getSeries(Long id) {
+        BookingSeries series = findSeries(id);
+        return convertToResponse(series, bookingRepository.findResponsesBySeriesId(id));
+    }
+
+    /**
+     * Moves every upcoming occurrence of a series to a new facility, time or
+     * purpose with one conflict query and one UPDATE. Occurrences that have
+     * started, ended or been cancelled are left as they are.
+     */
+    @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "update-series" })
+    public BookingSeriesResponse updateSeries(Long id, BookingSeriesUpdateRequest request) {
+        BookingSeries series = findSeries(id);
+
+        Facility facility = facilityService.getFacilityById(request.getFacilityId());
+
+        if (!facility.getIsAvailable()) {
+            throw new IllegalStateException("Facility is not available for booking");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<WrittenBooking> upcoming = bookingRepository.findUpcomingSeriesOccurrences(id, now);
+        if (upcoming.isEmpty()) {
+            throw new IllegalStateException("Series has no upcoming bookings to update");
+        }
+
+        Map<Long, Long> previousFacilityIds = new HashMap<>();
+        List<LocalDate> days = new ArrayList<>(upcoming.size());
+        for (WrittenBooking row : upcoming) {
+            previousFacilityIds.put(row.getId(), row.getFacilityId());
+            days.add(row.getDate());
+        }
+        checkSeriesConflicts(facility.getId(), days, request.getStartTime(), request.getEndTime(), id);
+
+        List<WrittenBooking> updated = conflictChecked(() -> bookingRepository.updateUpcomingSeriesOccurrences(
+                id, now, facility.getId(), request.getStartTime(), request.getEndTime(), request.getPurpose()));
+        for (WrittenBooking row : updated) {
+            Long previousFacilityId = previousFacilityIds.getOrDefault(row.getId(), row.getFacilityId());
+            availabilityIndex.remove(row.getId(), previousFacilityId, row.getDate());
+            availabilityIndex.record(row.getId(), row.getFacilityId(), row.getDate(),
+                    row.getStartTime(), row.getEndTime(), true);
+            changeFeed.publish(occurrenceEvent(BookingChangeEvent.Type.UPDATED, row,
+                    BookingStatus.CONFIRMED, previousFacilityId));
+        }
+
+        series.setFacility(facility);
+        series.setStartTime(request.getStartTime());
+        series.setEndTime(request.getEndTime());
+        series.setPurpose(request.getPurpose());
+        bookingSeriesRepository.save(series);
+        return convertToResponse(series, bookingRepository.findResponsesBySeriesId(id));
+    }
+
+    /**
+     * Cancels every upcoming occurrence of a series in one UPDATE.
+     */
     @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "cancel-series" })
+    public void cancelSeries(Long id) {
+        findSeries(id);
+
+        List<WrittenBooking> cancelled = bookingRepository.cancelUpcomingSeriesOccurrences(id, LocalDateTime.now());
+        if (cancelled.isEmpty()) {
+            throw new IllegalStateException("Series is already cancelled or has ended");
+        }
+
+        for (WrittenBooking row : cancelled) {
+            availabilityIndex.remove(row.getId(), row.getFacilityId(), row.getDate());
+            changeFeed.publish(occurrenceEvent(BookingChangeEvent.Type.CANCELLED, row,
+                    BookingStatus.CANCELLED, null));
+        }
+    }
+
+    @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "update" })
     public BookingResponse updateBooking(Long id, BookingRequest request) {
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findPartitionedById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Booking not found with id: " + id));
 
         // Check if booking can be modified
         if (booking.getStatus() == BookingStatus.CANCELLED) {
             throw new IllegalStateException("Cannot update a cancelled booking");
         }
+        if (booking.getStatus() == BookingStatus.COMPLETED) {
+            throw new IllegalStateException("Cannot update a completed booking");
+        }
 
         // Validate user exists
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + request.getUserId()));
 
-        // Validate facility exists and is available
-        Facility facility = facilityRepository.findById(request.getFacilityId())
-                .orElseThrow(
-                        () -> new EntityNotFoundException("Facility not found with id: " + request.getFacilityId()));
+        // Validate facility exists and is available (served from the facility cache)
+        Facility facility = facilityService.getFacilityById(request.getFacilityId());
 
         if (!facility.getIsAvailable()) {
             throw new IllegalStateException("Facility is not available for booking");
         }
 
         // Check for conflicts (excluding this booking)
-        List<Booking> conflictingBookings = bookingRepository.findActiveBookingsByFacilityAndDate(
-                request.getFacilityId(), request.getDate())
-                .stream()
-                .filter(b -> !b.getId().equals(id)) // Exclude current booking
-                .filter(b -> timeOverlap(b.getStartTime(), b.getEndTime(), request.getStartTime(),
-                        request.getEndTime()))
-                .toList();
+        boolean hasConflict = availabilityIndex.hasConflict(
+                request.getFacilityId(),
+                request.getDate(),
+                request.getStartTime(),
+                request.getEndTime(),
+                id);
 
-        if (!conflictingBookings.isEmpty()) {
+        if (hasConflict) {
             throw new BookingConflictException(
                     "Facility is already booked during the requested time slot");
         }
 
+        // Free the old slot before the booking moves
+        Long previousFacilityId = booking.getFacility().getId();
+        availabilityIndex.remove(id, previousFacilityId, booking.getDate());
+
         // Update fields
         booking.setUser(user);
         booking.setFacility(facility);
@@ -132,13 +565,17 @@ public class BookingService {
         booking.setEndTime(request.getEndTime());
         booking.setPurpose(request.getPurpose());
 
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = saveChecked(booking);
+        availabilityIndex.record(updatedBooking);
+        changeFeed.publish(BookingChangeEvent.moved(BookingChangeEvent.Type.UPDATED, updatedBooking,
+                previousFacilityId));
         return convertToResponse(updatedBooking);
     }
 
     @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "cancel" })
     public void cancelBooking(Long id) {
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findPartitionedById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Booking not found with id: " + id));
 
         if (booking.getStatus() == BookingStatus.CANCELLED) {
@@ -147,48 +584,150 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        availabilityIndex.remove(id, booking.getFacility().getId(), booking.getDate());
+        changeFeed.publish(BookingChangeEvent.of(BookingChangeEvent.Type.CANCELLED, booking));
     }
 
     @Transactional
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "delete" })
     public void deleteBooking(Long id) {
-        if (!bookingRepository.existsById(id)) {
-            throw new EntityNotFoundException("Booking not found with id: " + id);
-        }
-        bookingRepository.deleteById(id);
+        Booking booking = bookingRepository.findPartitionedById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Booking not found with id: " + id));
+        bookingRepository.delete(booking);
+        availabilityIndex.remove(id, booking.getFacility().getId(), booking.getDate());
+        changeFeed.publish(BookingChangeEvent.of(BookingChangeEvent.Type.DELETED, booking));
     }
 
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "availability" })
     public boolean isFacilityAvailable(Long facilityId, LocalDate date, String startTime, String endTime) {
         LocalTime start = LocalTime.parse(startTime);
         LocalTime end = LocalTime.parse(endTime);
 
-        return !bookingRepository.existsConflictingBooking(facilityId, date, start, end);
+        return !availabilityIndex.hasConflict(facilityId, date, start, end, null);
     }
 
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "list" })
     public List<BookingResponse> getBookingsByUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        // findById is answered from the second-level cache; existsById always queries
+        if (userRepository.findById(userId).isEmpty()) {
             throw new EntityNotFoundException("User not found with id: " + userId);
         }
 
-        return bookingRepository.findByUserId(userId).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return bookingRepository.findResponsesByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.BOOKING_OPERATIONS, extraTags = { "operation", "list" })
     public List<BookingResponse> getBookingsByFacility(Long facilityId) {
-        if (!facilityRepository.existsById(facilityId)) {
-            throw new EntityNotFoundException("Facility not found with id: " + facilityId);
+        // Throws EntityNotFoundException for unknown ids; usually a cache hit
+        facilityService.getFacilityById(facilityId);
+
+        return bookingRepository.findResponsesByFacilityId(facilityId);
+    }
+
+    /**
+     * Facility-days of a series' upcoming occurrences, for
+     * {@link BookingWrites} to lock before updating the series.
+     */
+    @Transactional(readOnly = true)
+    public List<BookingLocks.Key> findUpcomingSeriesSlots(Long id) {
+        return bookingRepository.findUpcomingSeriesOccurrences(id, LocalDateTime.now()).stream()
+                .map(row -> new BookingLocks.Key(row.getFacilityId(), row.getDate()))
+                .toList();
+    }
+
+    // Package-private: BookingWrites locks these days before createSeries runs
+    List<LocalDate> seriesDays(BookingSeriesRequest request) {
+        List<LocalDate> days = expandSeries(request.getFrequency(), request.getStartDate(),
+                request.getEndDate(), request.getOccurrences(), request.getExceptDates(), maxSeriesOccurrences);
+        if (days.isEmpty()) {
+            throw new IllegalArgumentException("Every date of the series is excepted");
         }
+        return days;
+    }
 
-        return bookingRepository.findByFacilityId(facilityId).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    private BookingSeries findSeries(Long id) {
+        return bookingSeriesRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Booking series not found with id: " + id));
     }
 
-    private boolean timeOverlap(LocalTime aStart, LocalTime aEnd, LocalTime bStart, LocalTime bEnd) {
+    /**
+     * Throws a conflict listing every one of {@code days} on which the
+     * facility is already booked during [start, end), found with one query.
+     */
+    private void checkSeriesConflicts(Long facilityId, List<LocalDate> days, LocalTime start, LocalTime end,
+            Long seriesId) {
+        List<LocalDate> conflicts = bookingRepository.findConflictingDays(facilityId,
+                days.toArray(LocalDate[]::new), days.get(0), days.get(days.size() - 1), start, end, seriesId)
+                .stream()
+                .map(n -> days.get(n.intValue() - 1))
+                .toList();
+        if (!conflicts.isEmpty()) {
+            throw new BookingConflictException(
+                    "Facility is already booked during the requested time slot on " + conflicts,
+                    conflicts.stream().map(LocalDate::toString).toList());
+        }
+    }
+
+    /**
+     * Dates produced by a series rule in order, minus {@code exceptDates}.
+     * Excepted dates still count towards {@code occurrences}.
+     */
+    static List<LocalDate> expandSeries(SeriesFrequency frequency, LocalDate startDate, LocalDate endDate,
+            Integer occurrences, Set<LocalDate> exceptDates, int maxOccurrences) {
+        int step = frequency == SeriesFrequency.WEEKLY ? 7 : 1;
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate day = startDate;
+        for (int n = 0; occurrences != null ? n < occurrences : !day.isAfter(endDate); n++) {
+            if (n == maxOccurrences) {
+                throw new IllegalArgumentException("A series cannot have more than " + maxOccurrences + " occurrences");
+            }
+            if (exceptDates == null || !exceptDates.contains(day)) {
+                days.add(day);
+            }
+            day = day.plusDays(step);
+        }
+        return days;
+    }
+
+    /**
+     * Saves and flushes so that the exclusion constraint fires here rather than
+     * at commit, and reports a rejected overlap as a booking conflict.
+     */
+    private Booking saveChecked(Booking booking) {
+        return conflictChecked(() -> bookingRepository.saveAndFlush(booking));
+    }
+
+    private List<Booking> saveAllChecked(List<Booking> bookings) {
+        return conflictChecked(() -> bookingRepository.saveAllAndFlush(bookings));
+    }
+
+    private static <T> T conflictChecked(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException ex) {
+            if (BookingConflictException.isOverlapViolation(ex)) {
+                throw new BookingConflictException(
+                        "Facility is already booked during the requested time slot", ex);
+            }
+            throw ex;
+        }
+    }
+
+    private static BookingChangeEvent occurrenceEvent(BookingChangeEvent.Type type, WrittenBooking row,
+            BookingStatus status, Long previousFacilityId) {
+        return new BookingChangeEvent(type, row.getId(), row.getFacilityId(), row.getUserId(), row.getDate(),
+                row.getStartTime(), row.getEndTime(), status, row.getPurpose(),
+                row.getFacilityId().equals(previousFacilityId) ? null : previousFacilityId);
+    }
+
+    // Package-private so the benchmarks in src/jmh can exercise them directly
+    static boolean timeOverlap(LocalTime aStart, LocalTime aEnd, LocalTime bStart, LocalTime bEnd) {
         return aStart.isBefore(bEnd) && aEnd.isAfter(bStart);
     }
 
-    private BookingResponse convertToResponse(Booking booking) {
+    static BookingResponse convertToResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
         response.setUserId(booking.getUser().getId());
@@ -200,7 +739,24 @@ public class BookingService {
         response.setEndTime(booking.getEndTime());
         response.setStatus(booking.getStatus());
         response.setPurpose(booking.getPurpose());
+        response.setSeriesId(booking.getSeriesId());
         response.setCreatedAt(booking.getCreatedAt());
         return response;
     }
+
+    static BookingSeriesResponse convertToResponse(BookingSeries series, List<BookingResponse> bookings) {
+        BookingSeriesResponse response = new BookingSeriesResponse();
+        response.setId(series.getId());
+        response.setUserId(series.getUser().getId());
+        response.setFacilityId(series.getFacility().getId());
+        response.setFrequency(series.getFrequency());
+        response.setStartDate(series.getStartDate());
+        response.setEndDate(series.getEndDate());
+        response.setOccurrences(series.getOccurrences());
+        response.setStartTime(series.getStartTime());
+        response.setEndTime(series.getEndTime());
+        response.setPurpose(series.getPurpose());
+        response.setBookings(bookings);
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingBatchItemResult;
+import com.example.booking.dto.BookingBatchResponse;
+import com.example.booking.dto.BookingRequest;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.exception.ServiceBusyException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in write path for new bookings with a single writer per facility.
+ *
+ * Requests are queued per facility in arrival order. At most one writer
+ * drains a facility's queue at a time: it takes up to group-size requests
+ * and hands them to {@link BookingWrites#createBookings}, which resolves
+ * overlaps in memory in queue order and inserts the winners in one
+ * transaction. Each caller waits on its own future for the created booking
+ * or the reason it was turned away. In a stampede for one slot the losers
+ * cost a comparison instead of a transaction and a lock wait, so throughput
+ * grows with the group size.
+ *
+ * Waiting callers hold no connection and no admission permit; only the
+ * writers do. A writer runs one group and then requeues its facility
+ * behind the others, so a hot facility cannot starve the rest.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.write-queue.enabled", havingValue = "true")
+public class BookingWriteQueue {
+
+    private final BookingWrites bookingWrites;
+    private final int groupSize;
+    private final int capacity;
+    private final long timeoutMillis;
+    private final DistributionSummary groupSizes;
+
+    // One lane per facility that has seen a write; lanes are never removed
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService writers;
+
+    public BookingWriteQueue(BookingWrites bookingWrites,
+            MeterRegistry registry,
+            @Value("${booking.write-queue.writer-threads:4}") int writerThreads,
+            @Value("${booking.write-queue.group-size:50}") int groupSize,
+            @Value("${booking.write-queue.capacity:1000}") int capacity,
+            @Value("${booking.write-queue.timeout-millis:10000}") long timeoutMillis) {
+        this.bookingWrites = bookingWrites;
+        this.groupSize = groupSize;
+        this.capacity = capacity;
+        this.timeoutMillis = timeoutMillis;
+        this.writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread thread = new Thread(r, "booking-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.groupSizes = DistributionSummary.builder("booking.write-queue.group.size")
+                .description("Bookings written per group commit")
+                .register(registry);
+        Gauge.builder("booking.write-queue.queued", queued, AtomicInteger::get)
+                .description("Booking requests waiting for a writer")
+                .register(registry);
+    }
+
+    /**
+     * Queues the request behind earlier ones for the same facility and waits
+     * until it has been written or rejected. A request still waiting after
+     * timeout-millis is withdrawn and reported as busy; one a writer has
+     * already taken is always seen through.
+     */
+    public BookingResponse create(BookingRequest request) {
+        Pending pending = new Pending(request);
+        Lane lane = lanes.computeIfAbsent(request.getFacilityId(), id -> new Lane());
+        if (!lane.offer(pending)) {
+            throw new ServiceBusyException("Write queue for facility " + request.getFacilityId() + " is full", 1);
+        }
+        lane.schedule();
+
+        try {
+            return pending.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (pending.taken.compareAndSet(false, true)) {
+                throw new ServiceBusyException("Booking was not written within " + timeoutMillis + " ms", 1);
+            }
+        } catch (ExecutionException e) {
+            throw asRuntime(e.getCause());
+        }
+        // A writer took it before we gave up; the outcome follows within one transaction
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw asRuntime(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    private void write(List<Pending> group) {
+        groupSizes.record(group.size());
+        BookingBatchResponse response;
+        try {
+            response = bookingWrites.createBookings(group.stream().map(p -> p.request).toList());
+        } catch (ServiceBusyException ex) {
+            group.forEach(p -> p.result.completeExceptionally(ex));
+            return;
+        } catch (RuntimeException ex) {
+            // The group rolled back as a whole, e.g. a booking made through
+            // another node tripped the exclusion constraint. Retry one by one
+            // so that only the request that actually clashes fails.
+            for (Pending pending : group) {
+                try {
+                    pending.result.complete(bookingWrites.createBooking(pending.request));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (BookingBatchItemResult result : response.getResults()) {
+            group.get(result.getIndex()).complete(result);
+        }
+    }
+
+    private static RuntimeException asRuntime(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * The queue of one facility. {@code scheduled} is true while a drain task
+     * for it is submitted or running, which is what makes it single-writer.
+     */
+    private final class Lane {
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        boolean offer(Pending pending) {
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            queue.add(pending);
+            queued.incrementAndGet();
+            return true;
+        }
+
+        void schedule() {
+            if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writers.execute(this::drainGroup);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+                Pending pending;
+                while ((pending = poll()) != null) {
+                    pending.result.completeExceptionally(
+                            new ServiceBusyException("Booking writers are shutting down", 1));
+                }
+            }
+        }
+
+        private void drainGroup() {
+            List<Pending> group = new ArrayList<>(groupSize);
+            try {
+                Pending pending;
+                while (group.size() < groupSize && (pending = poll()) != null) {
+                    // Skip requests whose caller has already given up
+                    if (pending.taken.compareAndSet(false, true)) {
+                        group.add(pending);
+                    }
+                }
+                if (!group.isEmpty()) {
+                    write(group);
+                }
+            } finally {
+                // Never leave a caller waiting on a future nobody will complete
+                group.forEach(p -> p.result.completeExceptionally(
+                        new IllegalStateException("Booking was not written")));
+                scheduled.set(false);
+                schedule();
+            }
+        }
+
+        private Pending poll() {
+            Pending pending = queue.poll();
+            if (pending != null) {
+                size.decrementAndGet();
+                queued.decrementAndGet();
+            }
+            return pending;
+        }
+    }
+
+    private static final class Pending {
+        private final BookingRequest request;
+        private final CompletableFuture<BookingResponse> result = new CompletableFuture<>();
+        // Claimed by the writer that takes the request or by its caller giving
+        // up, whichever comes first
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        Pending(BookingRequest request) {
+            this.request = request;
+        }
+
+        void complete(BookingBatchItemResult item) {
+            switch (item.getOutcome()) {
+                case CREATED -> result.complete(item.getBooking());
+                case CONFLICT -> result.completeExceptionally(new BookingConflictException(item.getMessage()));
+                case NOT_FOUND -> result.completeExceptionally(new EntityNotFoundException(item.getMessage()));
+                case UNAVAILABLE -> result.completeExceptionally(new IllegalStateException(item.getMessage()));
+                case INVALID -> result.completeExceptionally(new IllegalArgumentException(item.getMessage()));
+            }
+        }
+    }
+}
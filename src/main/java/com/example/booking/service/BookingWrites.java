@@ -0,0 +1,79 @@
+package com.example.booking.service;
+
+import com.example.booking.dto.BookingBatchResponse;
+import com.example.booking.dto.BookingRequest;
+import com.example.booking.dto.BookingResponse;
+import com.example.booking.dto.BookingSeriesRequest;
+import com.example.booking.dto.BookingSeriesResponse;
+import com.example.booking.dto.BookingSeriesUpdateRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Entry point for booking writes that claim time slots. Takes the
+ * facility-day locks from {@link BookingLocks} and only then calls into
+ * {@link BookingService}, whose transaction (and pooled connection) starts
+ * inside the lock and commits before it is released. Deliberately not
+ * transactional itself.
+ */
+@Service
+public class BookingWrites {
+
+    private final BookingService bookingService;
+    private final BookingLocks bookingLocks;
+
+    public BookingWrites(BookingService bookingService, BookingLocks bookingLocks) {
+        this.bookingService = bookingService;
+        this.bookingLocks = bookingLocks;
+    }
+
+    public BookingResponse createBooking(BookingRequest request) {
+        return bookingLocks.withLock(request.getFacilityId(), request.getDate(),
+                () -> bookingService.createBooking(request));
+    }
+
+    public BookingResponse updateBooking(Long id, BookingRequest request) {
+        return bookingLocks.withLock(request.getFacilityId(), request.getDate(),
+                () -> bookingService.updateBooking(id, request));
+    }
+
+    /**
+     * Locks every facility-day named in the batch; invalid items are rejected
+     * inside and simply leave their stripe unused.
+     */
+    public BookingBatchResponse createBookings(List<BookingRequest> requests) {
+        Set<BookingLocks.Key> keys = new HashSet<>();
+        if (requests != null) {
+            requests.stream()
+                    .filter(Objects::nonNull)
+                    .filter(r -> r.getFacilityId() != null && r.getDate() != null)
+                    .forEach(r -> keys.add(new BookingLocks.Key(r.getFacilityId(), r.getDate())));
+        }
+        return bookingLocks.withLocks(keys, () -> bookingService.createBookings(requests));
+    }
+
+    public BookingSeriesResponse createSeries(BookingSeriesRequest request) {
+        List<BookingLocks.Key> keys = bookingService.seriesDays(request).stream()
+                .map(day -> new BookingLocks.Key(request.getFacilityId(), day))
+                .toList();
+        return bookingLocks.withLocks(keys, () -> bookingService.createSeries(request));
+    }
+
+    /**
+     * Locks the days the upcoming occurrences are on, at their current
+     * facilities and at the target one. An occurrence added concurrently on
+     * another node is still caught by the exclusion constraint.
+     */
+    public BookingSeriesResponse updateSeries(Long id, BookingSeriesUpdateRequest request) {
+        Set<BookingLocks.Key> keys = new HashSet<>(bookingService.findUpcomingSeriesSlots(id));
+        Set<LocalDate> days = new HashSet<>();
+        keys.forEach(key -> days.add(key.date()));
+        days.forEach(day -> keys.add(new BookingLocks.Key(request.getFacilityId(), day)));
+        return bookingLocks.withLocks(keys, () -> bookingService.updateSeries(id, request));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Facility;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Versions of the collections clients poll: the facility lists and each
+ * facility's bookings. They back the ETags of those endpoints, so an
+ * unchanged collection can be answered with 304 without serializing it.
+ *
+ * Each facility's bookings are versioned in the database: triggers bump a
+ * row in facility_booking_versions (db/schema.sql) for every statement that
+ * touches that facility's bookings or the facility itself, so changes made
+ * anywhere (other nodes, bulk jobs, partition archiving) move the tag, and
+ * reading it is a single primary-key lookup. It is read in a read-only
+ * transaction and so may come from a lagging replica; such a tag is only
+ * older than the data, which is loaded from the primary afterwards.
+ *
+ * Facility lists are served from a per-node cache, so their tag is a digest
+ * of the list itself and always matches what that node sends.
+ */
+@Component
+public class CollectionVersions {
+
+    private static final String FACILITY_BOOKINGS_VERSION =
+            "SELECT COALESCE((SELECT version FROM facility_booking_versions WHERE facility_id = ?), 0)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnly;
+
+    public CollectionVersions(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public String facilitiesTag(List<Facility> facilities) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Facility f : facilities) {
+                String row = f.getId() + "|" + f.getName() + "|" + f.getLocation() + "|"
+                        + f.getCapacity() + "|" + f.getIsAvailable() + "\n";
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return tag("f", HexFormat.of().formatHex(digest.digest(), 0, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String facilityBookingsTag(Long facilityId) {
+        Long version = readOnly.execute(status ->
+                jdbc.queryForObject(FACILITY_BOOKINGS_VERSION, Long.class, facilityId));
+        return tag("b" + facilityId, String.valueOf(version));
+    }
+
+    private static String tag(String collection, String version) {
+        return "\"" + collection + "-" + version + "\"";
+    }
+}
@@ -1,32 +1,58 @@
 package com.example.booking.service;
 
+import com.example.booking.config.CacheConfig;
+import com.example.booking.config.MetricsConfig;
+import com.example.booking.config.ReplicaRouting;
+import com.example.booking.dto.BookingRequest;
 import com.example.booking.model.Facility;
 import com.example.booking.repository.FacilityRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @Service
 public class FacilityService {
     
+    public static final int MAX_SEARCH_RESULTS = 100;
+    
     private final FacilityRepository facilityRepository;
+    private final AvailabilityIndex availabilityIndex;
     
-    public FacilityService(FacilityRepository facilityRepository) {
+    public FacilityService(FacilityRepository facilityRepository,
+            AvailabilityIndex availabilityIndex) {
         this.facilityRepository = facilityRepository;
+        this.availabilityIndex = availabilityIndex;
     }
     
+    @Cacheable(cacheNames = CacheConfig.FACILITY_LISTS, key = "'all'")
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "list" })
     public List<Facility> getAllFacilities() {
-        return facilityRepository.findAll();
+        // Cached loads read the primary so replica lag is never cached
+        return ReplicaRouting.onPrimary(() -> List.copyOf(facilityRepository.findAll()));
     }
     
+    @Cacheable(cacheNames = CacheConfig.FACILITIES, key = "#id")
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "get" })
     public Facility getFacilityById(Long id) {
-        return facilityRepository.findById(id)
+        return ReplicaRouting.onPrimary(() -> facilityRepository.findById(id))
                 .orElseThrow(() -> new EntityNotFoundException("Facility not found with id: " + id));
     }
     
     @Transactional
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.FACILITIES, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.FACILITY_LISTS, allEntries = true))
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "create" })
     public Facility createFacility(Facility facility) {
         // Ensure new facility is created (not updating)
         facility.setId(null);
@@ -34,8 +60,14 @@ public class FacilityService {
     }
     
     @Transactional
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.FACILITIES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.FACILITY_LISTS, allEntries = true))
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "update" })
     public Facility updateFacility(Long id, Facility facilityDetails) {
-        Facility facility = getFacilityById(id);
+        // Load from the database, never modify the cached instance in place
+        Facility facility = facilityRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Facility not found with id: " + id));
         
         facility.setName(facilityDetails.getName());
         facility.setLocation(facilityDetails.getLocation());
@@ -46,14 +78,44 @@ public class FacilityService {
     }
     
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.FACILITIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.FACILITY_LISTS, allEntries = true) })
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "delete" })
     public void deleteFacility(Long id) {
         if (!facilityRepository.existsById(id)) {
             throw new EntityNotFoundException("Facility not found with id: " + id);
         }
         facilityRepository.deleteById(id);
+        // Bookings go with the facility (ON DELETE CASCADE)
+        availabilityIndex.evictFacility(id);
+    }
+    
+    /**
+     * Finds bookable facilities with at least {@code minCapacity} seats that
+     * are free for the whole of [startTime, endTime) on {@code date}, best
+     * capacity fit first.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "search" })
+    public List<Facility> searchFreeFacilities(int minCapacity, LocalDate date,
+            LocalTime startTime, LocalTime endTime, int limit) {
+        if (!endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (startTime.isBefore(BookingRequest.OPENING_TIME) || endTime.isAfter(BookingRequest.CLOSING_TIME)) {
+            throw new IllegalArgumentException("Booking times must be within operating hours");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return facilityRepository.findFreeFacilities(Math.max(minCapacity, 1), date, startTime, endTime,
+                PageRequest.of(0, limit));
     }
     
+    @Cacheable(cacheNames = CacheConfig.FACILITY_LISTS, key = "'available'")
+    @Timed(value = MetricsConfig.FACILITY_OPERATIONS, extraTags = { "operation", "list" })
     public List<Facility> getAvailableFacilities() {
-        return facilityRepository.findByIsAvailableTrue();
+        return List.copyOf(facilityRepository.findByIsAvailableTrue());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drops delete tombstones older than the retention window. Change tokens
+ * older than the same window are answered with a reset, so no client can
+ * miss a purged delete.
+ */
+@Component
+public class TombstonePurgeJob {
+
+    private final BookingRepository bookingRepository;
+    private final long retentionDays;
+
+    public TombstonePurgeJob(BookingRepository bookingRepository,
+            @Value("${booking.changes.tombstone-retention-days:7}") long retentionDays) {
+        this.bookingRepository = bookingRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "${booking.changes.tombstone-purge-cron:0 30 3 * * *}")
+    public void purge() {
+        bookingRepository.deleteTombstonesBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
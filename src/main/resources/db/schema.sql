@@ -0,0 +1,457 @@
+-- =========================================================
+-- Runs on every startup after Hibernate has updated the schema
+-- (see spring.sql.init.* in application.properties).
+-- Every statement must be idempotent. Statements end with ^;
+-- so that PL/pgSQL blocks can contain plain semicolons.
+-- =========================================================
+
+CREATE EXTENSION IF NOT EXISTS btree_gist^;
+
+-- Booking ids come from a pooled sequence (allocationSize = 50 in Booking.java).
+-- Tables created by project1.sql or by the old IDENTITY mapping still step by 1.
+DO $$
+DECLARE
+    seq text := pg_get_serial_sequence('bookings', 'id');
+BEGIN
+    IF seq IS NOT NULL
+            AND (SELECT seqincrement FROM pg_sequence WHERE seqrelid = seq::regclass) <> 50 THEN
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+    END IF;
+END
+$$^;
+
+-- ---------------------------------------------------------
+-- Monthly range partitions on bookings.date, named bookings_YYYY_MM,
+-- plus a DEFAULT partition that catches dates no partition covers yet.
+-- Queries filtered by date only touch the months they ask for.
+--
+-- Database-level guarantee that two active bookings for the same
+-- facility never overlap: PostgreSQL cannot put an exclusion constraint
+-- on a partitioned table, so every partition gets its own. Overlapping
+-- bookings share a date, so they always share a partition.
+-- ---------------------------------------------------------
+CREATE OR REPLACE FUNCTION bookings_add_overlap_constraint(part text) RETURNS void AS $$
+BEGIN
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+            || 'facility_id WITH =, tsrange(date + start_time, date + end_time, ''[)'') WITH &&) '
+            || 'WHERE (status IN (''CONFIRMED'', ''PENDING''))', part, part || '_no_overlap');
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE WARNING '% not protected against overlaps: existing bookings overlap', part;
+END
+$$ LANGUAGE plpgsql^;
+
+-- Creates the partition for the month containing m unless it exists.
+-- Rows for that month already sitting in the default partition are moved
+-- into it first (without tombstones), otherwise it could not be attached.
+CREATE OR REPLACE FUNCTION bookings_create_month_partition(m date) RETURNS boolean AS $$
+DECLARE
+    lo   date := date_trunc('month', m)::date;
+    hi   date := (date_trunc('month', m) + interval '1 month')::date;
+    part text := 'bookings_' || to_char(m, 'YYYY_MM');
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+    PERFORM set_config('booking.skip_tombstones', 'on', true);
+    EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE date >= %L AND date < %L RETURNING *) '
+            || 'INSERT INTO %I SELECT * FROM moved', lo, hi, part);
+    PERFORM set_config('booking.skip_tombstones', 'off', true);
+    PERFORM bookings_add_overlap_constraint(part);
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', part, lo, hi);
+    RETURN true;
+END
+$$ LANGUAGE plpgsql^;
+
+-- Partitions for the current month and months_ahead months after it, and
+-- for any month that has rows in the default partition. Returns how many
+-- were created. Called below and by BookingPartitionJob.
+CREATE OR REPLACE FUNCTION bookings_ensure_partitions(months_ahead integer) RETURNS integer AS $$
+DECLARE
+    m       date;
+    created integer := 0;
+BEGIN
+    FOR m IN
+        SELECT DISTINCT date_trunc('month', date)::date FROM bookings_default
+        UNION
+        SELECT (date_trunc('month', current_date) + make_interval(months => n))::date
+        FROM generate_series(0, months_ahead) AS n
+        ORDER BY 1
+    LOOP
+        IF bookings_create_month_partition(m) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END
+$$ LANGUAGE plpgsql^;
+
+-- Moves every monthly partition that ends on or before cutoff from bookings
+-- to bookings_archive. Detach and attach only change the catalog, so no
+-- rows are copied; each archived booking leaves a tombstone, so delta-sync
+-- clients drop it, its booking_dates entry goes and its facility's list
+-- version moves. A partition that cannot
+-- be moved (e.g. lock_timeout while a long query holds bookings) stays put
+-- until the next run.
+CREATE OR REPLACE FUNCTION bookings_archive_partitions(cutoff date) RETURNS integer AS $$
+DECLARE
+    part     text;
+    lo       date;
+    archived integer := 0;
+BEGIN
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$'
+        ORDER BY c.relname
+    LOOP
+        lo := to_date(substr(part, 10), 'YYYY_MM');
+        CONTINUE WHEN (lo + interval '1 month')::date > cutoff;
+        BEGIN
+            EXECUTE format('INSERT INTO booking_tombstones (booking_id, facility_id, date, deleted_version) '
+                    || 'SELECT id, facility_id, date, pg_current_xact_id()::text::bigint FROM %I', part);
+            EXECUTE format('DELETE FROM booking_dates d USING %I p WHERE d.booking_id = p.id', part);
+            EXECUTE format('SELECT facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM %I', part);
+            EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', part);
+            EXECUTE format('ALTER TABLE bookings_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                    part, lo, (lo + interval '1 month')::date);
+            archived := archived + 1;
+        EXCEPTION
+            WHEN OTHERS THEN
+                RAISE WARNING 'could not archive %: %', part, SQLERRM;
+        END;
+    END LOOP;
+    RETURN archived;
+END
+$$ LANGUAGE plpgsql^;
+
+-- One-time conversion of a plain bookings table (created by Hibernate or
+-- an older project1.sql) into the partitioned layout. Rows are copied into
+-- the default partition and spread over monthly partitions by
+-- bookings_ensure_partitions at the end of this file. The primary key has
+-- to include the partition key, so it becomes (id, date).
+DO $$
+DECLARE
+    seq text := pg_get_serial_sequence('bookings', 'id');
+    con record;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'bookings'::regclass) <> 'r' THEN
+        RETURN;
+    END IF;
+    ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+    FOR con IN SELECT conname FROM pg_constraint
+            WHERE conrelid = 'bookings_unpartitioned'::regclass AND contype IN ('p', 'u', 'x') LOOP
+        EXECUTE format('ALTER TABLE bookings_unpartitioned DROP CONSTRAINT %I', con.conname);
+    END LOOP;
+
+    CREATE TABLE bookings (LIKE bookings_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (date);
+    ALTER TABLE bookings ADD CONSTRAINT bookings_pkey PRIMARY KEY (id, date);
+    FOR con IN SELECT conname, pg_get_constraintdef(oid) AS def FROM pg_constraint
+            WHERE conrelid = 'bookings_unpartitioned'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE bookings ADD CONSTRAINT %I %s', con.conname, con.def);
+    END LOOP;
+    CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+    INSERT INTO bookings SELECT * FROM bookings_unpartitioned;
+    IF seq IS NOT NULL THEN
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY bookings.id', seq);
+    END IF;
+    DROP TABLE bookings_unpartitioned;
+    PERFORM bookings_add_overlap_constraint('bookings_default');
+END
+$$^;
+
+-- Overlap constraints from before COMPLETED bookings stopped holding their
+-- slot are recreated once with the predicate the booking queries use
+DO $$
+DECLARE
+    con record;
+BEGIN
+    FOR con IN SELECT p.relname AS part, c.conname FROM pg_constraint c
+            JOIN pg_class p ON p.oid = c.conrelid
+            JOIN pg_inherits i ON i.inhrelid = c.conrelid
+            WHERE i.inhparent = 'bookings'::regclass AND c.contype = 'x'
+            AND pg_get_constraintdef(c.oid) LIKE '%<> ''CANCELLED''%' LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', con.part, con.conname);
+        PERFORM bookings_add_overlap_constraint(con.part);
+    END LOOP;
+END
+$$^;
+
+-- Hibernate does not alter the partitioned table either, so columns added
+-- to Booking.java after the conversion are added here
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS series_id BIGINT^;
+
+-- Booking.java leaves the foreign keys to this file (Hibernate cannot see
+-- them on a partitioned table). Tables converted above keep theirs.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'bookings'::regclass
+            AND contype = 'f' AND confrelid = 'facilities'::regclass) THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_facility_id_fkey
+            FOREIGN KEY (facility_id) REFERENCES facilities (id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'bookings'::regclass
+            AND contype = 'f' AND confrelid = 'users'::regclass) THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_user_id_fkey
+            FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'bookings'::regclass
+            AND contype = 'f' AND confrelid = 'booking_series'::regclass) THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_series_id_fkey
+            FOREIGN KEY (series_id) REFERENCES booking_series (id) ON DELETE SET NULL;
+    END IF;
+END
+$$^;
+
+-- Recurring series (BookingSeries.java) go with their facility or user,
+-- like bookings do
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'booking_series'::regclass
+            AND contype = 'f' AND confrelid = 'facilities'::regclass) THEN
+        ALTER TABLE booking_series ADD CONSTRAINT booking_series_facility_id_fkey
+            FOREIGN KEY (facility_id) REFERENCES facilities (id) ON DELETE CASCADE;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'booking_series'::regclass
+            AND contype = 'f' AND confrelid = 'users'::regclass) THEN
+        ALTER TABLE booking_series ADD CONSTRAINT booking_series_user_id_fkey
+            FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+    END IF;
+END
+$$^;
+
+-- Partitions past the archive horizon (booking.partitions.archive-after-months)
+-- live here, out of the way of every query on bookings. Columns added to
+-- bookings later must be added here too, or partitions cannot be attached.
+CREATE TABLE IF NOT EXISTS bookings_archive (LIKE bookings)
+    PARTITION BY RANGE (date)^;
+ALTER TABLE bookings_archive ADD COLUMN IF NOT EXISTS series_id BIGINT^;
+
+-- Keyset pagination: one index per filter shape, each ending in the
+-- (date, start_time, id) sort order so pages are index range scans.
+CREATE INDEX IF NOT EXISTS idx_bookings_date_start_id
+    ON bookings (date, start_time, id)^;
+CREATE INDEX IF NOT EXISTS idx_bookings_facility_date_start_id
+    ON bookings (facility_id, date, start_time, id)^;
+CREATE INDEX IF NOT EXISTS idx_bookings_user_date_start_id
+    ON bookings (user_id, date, start_time, id)^;
+CREATE INDEX IF NOT EXISTS idx_bookings_status_date_start_id
+    ON bookings (status, date, start_time, id)^;
+
+-- Conflict checks and free-room search only look at bookings that can still
+-- clash; ended ones are moved to COMPLETED by BookingCompletionJob
+CREATE INDEX IF NOT EXISTS idx_bookings_active_facility_date
+    ON bookings (facility_id, date, start_time, end_time)
+    WHERE status IN ('CONFIRMED', 'PENDING')^;
+
+-- Series-wide cancel and update find the occurrences of one series
+CREATE INDEX IF NOT EXISTS idx_bookings_series
+    ON bookings (series_id, date) WHERE series_id IS NOT NULL^;
+
+-- Free-room search walks bookable facilities in capacity order
+CREATE INDEX IF NOT EXISTS idx_facilities_available_capacity
+    ON facilities (capacity, id) WHERE is_available^;
+
+-- Change tracking for GET /api/bookings/changes. Every insert or update
+-- stamps the row with the id of the writing transaction, and every delete
+-- leaves a tombstone. Clients poll with the snapshot xmin from their last
+-- call, so rows from transactions still running at that point are never
+-- skipped, even though transaction ids are not handed out in commit order.
+-- Hibernate adds change_version as a nullable column; rows that predate it
+-- get 0 once, and the column then becomes NOT NULL, which is what tells
+-- later startups that this has already run.
+DO $$
+BEGIN
+    IF NOT (SELECT attnotnull FROM pg_attribute
+            WHERE attrelid = 'bookings'::regclass AND attname = 'change_version') THEN
+        UPDATE bookings SET change_version = 0 WHERE change_version IS NULL;
+        ALTER TABLE bookings ALTER COLUMN change_version SET DEFAULT 0;
+        ALTER TABLE bookings ALTER COLUMN change_version SET NOT NULL;
+    END IF;
+END
+$$^;
+
+CREATE TABLE IF NOT EXISTS booking_tombstones (
+    booking_id      BIGINT    NOT NULL,
+    facility_id     BIGINT    NOT NULL,
+    date            DATE      NOT NULL,
+    deleted_version BIGINT    NOT NULL,
+    deleted_at      TIMESTAMP NOT NULL DEFAULT now()
+)^;
+
+CREATE OR REPLACE FUNCTION bookings_stamp_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_version := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql^;
+
+CREATE OR REPLACE FUNCTION bookings_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    -- Partition maintenance moves rows; it does not delete bookings
+    IF current_setting('booking.skip_tombstones', true) = 'on' THEN
+        RETURN OLD;
+    END IF;
+    -- An UPDATE that changes the month moves the row to another partition,
+    -- which fires DELETE triggers although the booking still exists
+    IF EXISTS (SELECT 1 FROM bookings WHERE id = OLD.id) THEN
+        RETURN OLD;
+    END IF;
+    INSERT INTO booking_tombstones (booking_id, facility_id, date, deleted_version)
+    VALUES (OLD.id, OLD.facility_id, OLD.date, pg_current_xact_id()::text::bigint);
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql^;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_stamp_change'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_stamp_change BEFORE INSERT OR UPDATE ON bookings
+            FOR EACH ROW EXECUTE FUNCTION bookings_stamp_change();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_record_tombstone'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_record_tombstone AFTER DELETE ON bookings
+            FOR EACH ROW EXECUTE FUNCTION bookings_record_tombstone();
+    END IF;
+END
+$$^;
+
+-- Bookings are looked up by id alone, but the primary key is (id, date), so
+-- such a lookup would probe every partition. booking_dates maps each id to
+-- its date, and so to its partition (see BookingRepository.IN_OWN_PARTITION).
+-- Rows moved by partition maintenance keep their date. Hibernate may already
+-- have created the table for the BookingDate entity; it is filled from
+-- bookings once, while still empty, before the trigger below keeps it current.
+CREATE TABLE IF NOT EXISTS booking_dates (
+    booking_id BIGINT PRIMARY KEY,
+    date       DATE   NOT NULL
+)^;
+
+INSERT INTO booking_dates (booking_id, date)
+SELECT id, date FROM bookings
+WHERE NOT EXISTS (SELECT 1 FROM booking_dates)
+ON CONFLICT DO NOTHING^;
+
+CREATE OR REPLACE FUNCTION bookings_track_date() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('booking.skip_tombstones', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    -- A date change across months fires DELETE and then INSERT
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM booking_dates WHERE booking_id = OLD.id AND date = OLD.date;
+    ELSE
+        INSERT INTO booking_dates (booking_id, date) VALUES (NEW.id, NEW.date)
+        ON CONFLICT (booking_id) DO UPDATE SET date = EXCLUDED.date;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql^;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_track_date'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_track_date AFTER INSERT OR UPDATE OF date OR DELETE ON bookings
+            FOR EACH ROW EXECUTE FUNCTION bookings_track_date();
+    END IF;
+END
+$$^;
+
+-- Version of each facility's booking list, behind the ETags of
+-- GET /api/bookings/facility/{id} (CollectionVersions), so a poll is one
+-- primary-key read. Bumped once per statement for every facility whose
+-- bookings it touched, and when the facility row itself changes. The bump
+-- locks that facility's row until commit, so concurrent writes to one
+-- facility's bookings finish their transactions one at a time.
+CREATE TABLE IF NOT EXISTS facility_booking_versions (
+    facility_id BIGINT PRIMARY KEY,
+    version     BIGINT NOT NULL
+)^;
+
+CREATE OR REPLACE FUNCTION facility_bookings_changed(facility_ids bigint[]) RETURNS void AS $$
+    INSERT INTO facility_booking_versions (facility_id, version)
+    SELECT id, 1 FROM unnest(facility_ids) AS id WHERE id IS NOT NULL ORDER BY id
+    ON CONFLICT (facility_id) DO UPDATE SET version = facility_booking_versions.version + 1
+$$ LANGUAGE sql^;
+
+-- Transition tables make this one call per statement, however many rows it
+-- touched; an UPDATE that moves a booking bumps both facilities
+CREATE OR REPLACE FUNCTION bookings_bump_facility_versions() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM new_rows;
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id))
+        FROM (SELECT facility_id FROM new_rows UNION SELECT facility_id FROM old_rows) changed;
+    ELSE
+        PERFORM facility_bookings_changed(array_agg(DISTINCT facility_id)) FROM old_rows;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql^;
+
+CREATE OR REPLACE FUNCTION facilities_bump_booking_version() RETURNS trigger AS $$
+BEGIN
+    PERFORM facility_bookings_changed(ARRAY[NEW.id]);
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql^;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_version_insert'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_version_insert AFTER INSERT ON bookings
+            REFERENCING NEW TABLE AS new_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_version_update'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_version_update AFTER UPDATE ON bookings
+            REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'bookings_version_delete'
+            AND tgrelid = 'bookings'::regclass) THEN
+        CREATE TRIGGER bookings_version_delete AFTER DELETE ON bookings
+            REFERENCING OLD TABLE AS old_rows
+            FOR EACH STATEMENT EXECUTE FUNCTION bookings_bump_facility_versions();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'facilities_bump_booking_version'
+            AND tgrelid = 'facilities'::regclass) THEN
+        CREATE TRIGGER facilities_bump_booking_version AFTER UPDATE ON facilities
+            FOR EACH ROW EXECUTE FUNCTION facilities_bump_booking_version();
+    END IF;
+END
+$$^;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_change_version
+    ON bookings (change_version, id)^;
+-- Only used by the data-derived ETags that facility_booking_versions replaced
+DROP INDEX IF EXISTS idx_bookings_facility_change_version^;
+CREATE INDEX IF NOT EXISTS idx_booking_tombstones_version
+    ON booking_tombstones (deleted_version, booking_id)^;
+
+-- Idempotency-Key outcomes shared between nodes (booking.idempotency.store=database).
+-- status stays NULL while the first request runs; expires_at is its lease until
+-- then and the retention deadline after.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    key          VARCHAR(300) PRIMARY KEY,
+    fingerprint  VARCHAR(64)  NOT NULL,
+    status       INTEGER,
+    content_type VARCHAR(100),
+    body         BYTEA,
+    created_at   TIMESTAMP    NOT NULL DEFAULT now(),
+    expires_at   TIMESTAMP    NOT NULL
+)^;
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires
+    ON idempotency_keys (expires_at)^;
+
+-- Startup top-up; BookingPartitionJob keeps booking.partitions.months-ahead
+SELECT bookings_ensure_partitions(12)^;
@@ -0,0 +1,141 @@
+package com.example.booking;
+
+import com.example.booking.model.Facility;
+import com.example.booking.model.Role;
+import com.example.booking.model.User;
+import com.example.booking.repository.FacilityRepository;
+import com.example.booking.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of JDBC statements behind the hot booking endpoints, so an
+ * N+1 or an extra lookup shows up as a failing test rather than in production
+ * latency. Counts come from Hibernate's statistics
+ * (hibernate.generate_statistics=true in application.properties).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "booking.rate-limit.enabled=false",
+        // Keep background jobs from adding statements to the counts
+        "booking.completion.initial-delay-millis=3600000",
+        "spring.jpa.show-sql=false"
+})
+class BookingStatementCountTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long facilityId;
+    private LocalDate date;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbc.execute("TRUNCATE bookings, users, facilities RESTART IDENTITY CASCADE");
+        userId = userRepository.save(new User("count@university.edu", "Count User", "password", Role.STUDENT))
+                .getId();
+        facilityId = facilityRepository.save(new Facility("Count Room", "Test Block", 12)).getId();
+        date = LocalDate.now().plusDays(7);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createRunsOneStatement() {
+        // Warm the user and facility caches the way a running server has them
+        create(8);
+
+        statistics.clear();
+        create(10);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void detailRunsOneQuery() {
+        long id = create(8).path("id").asLong();
+
+        statistics.clear();
+        ResponseEntity<JsonNode> response = rest.getForEntity("/api/bookings/{id}", JsonNode.class, id);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listRunsOneQueryWhateverThePageSize() {
+        for (int hour = 8; hour < 18; hour++) {
+            create(hour);
+        }
+
+        statistics.clear();
+        ResponseEntity<JsonNode> response = rest.getForEntity(
+                "/api/bookings?facilityId={facilityId}&limit=50", JsonNode.class, facilityId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(10, response.getBody().path("items").size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private JsonNode create(int hour) {
+        Map<String, Object> request = Map.of(
+                "userId", userId,
+                "facilityId", facilityId,
+                "date", date.toString(),
+                "startTime", String.format("%02d:00", hour),
+                "endTime", String.format("%02d:00", hour + 1),
+                "purpose", "Statement count");
+        ResponseEntity<JsonNode> response = rest.postForEntity("/api/bookings", request, JsonNode.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}